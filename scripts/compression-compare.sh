@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+# Сравнение пропускной способности, задержки p99 и объема ответов GET /tasks
+# при разных размерах страницы и настройках сжатия:
+#   plain    - HTTP/1.1 без сжатия;
+#   gzip     - HTTP/1.1, gzip для ответов больше MIN_RESPONSE_SIZE;
+#   h2c-gzip - HTTP/2 без TLS (h2c), gzip для ответов больше MIN_RESPONSE_SIZE.
+# Режимы задаются переменной MODES, размеры страниц - переменной PAGE_SIZES.
+# Задачи создаются один раз при первом запуске, все запуски используют одну и ту же базу данных.
+# Результаты сохраняются в target/compression-<режим>-<размер страницы>.json.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT="${PORT:-8080}"
+CONCURRENCY="${CONCURRENCY:-100}"
+DURATION="${DURATION:-30}"
+MODES="${MODES:-plain gzip h2c-gzip}"
+PAGE_SIZES="${PAGE_SIZES:-20 100 500}"
+MIN_RESPONSE_SIZE="${MIN_RESPONSE_SIZE:-2KB}"
+
+mvn -B -q -DskipTests package
+JAR=$(ls target/task-manager-*.jar | grep -v original | head -n 1)
+
+seed=true
+for mode in $MODES; do
+    case "$mode" in
+        plain)
+            options=(--server.compression.enabled=false --server.http2.enabled=false)
+            http2=false
+            compression=false
+            ;;
+        gzip)
+            options=(--server.compression.min-response-size="$MIN_RESPONSE_SIZE" --server.http2.enabled=false)
+            http2=false
+            compression=true
+            ;;
+        h2c-gzip)
+            options=(--server.compression.min-response-size="$MIN_RESPONSE_SIZE" --server.http2.enabled=true)
+            http2=true
+            compression=true
+            ;;
+        *)
+            echo "Unknown mode: $mode" >&2
+            exit 1
+            ;;
+    esac
+    java -jar "$JAR" --server.port="$PORT" "${options[@]}" > "target/app-compression-$mode.log" 2>&1 &
+    app_pid=$!
+    trap 'kill "$app_pid" 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        sleep 1
+    done
+
+    for size in $PAGE_SIZES; do
+        mvn -B -q -Pbenchmark -DskipTests test-compile exec:exec@load-test \
+            -Dload.url="http://localhost:$PORT" \
+            -Dload.seed="$seed" \
+            -Dload.page-size="$size" \
+            -Dload.http2="$http2" \
+            -Dload.compression="$compression" \
+            -Dload.concurrency="$CONCURRENCY" \
+            -Dload.duration="$DURATION" \
+            -Dload.result="target/compression-$mode-$size.json"
+        seed=false
+    done
+
+    kill "$app_pid"
+    wait "$app_pid" 2>/dev/null || true
+done
+
+for size in $PAGE_SIZES; do
+    for mode in $MODES; do
+        printf '%-10s %5s %s\n' "$mode" "$size" "$(cat "target/compression-$mode-$size.json")"
+    done
+done
@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+# Сравнение пропускной способности и задержки p99 приложения в разных режимах на Java 21:
+#   platform        - Spring MVC на потоках платформы;
+#   virtual-threads - Spring MVC на виртуальных потоках;
+#   reactive        - WebFlux и R2DBC.
+# Режимы задаются переменной MODES, все запуски используют одну и ту же базу данных.
+# Задачи создает первый режим, поэтому режим reactive не должен идти первым.
+# Результаты сохраняются в target/load-<режим>.json.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+PORT="${PORT:-8080}"
+CONCURRENCY="${CONCURRENCY:-500}"
+DURATION="${DURATION:-30}"
+MODES="${MODES:-platform virtual-threads}"
+
+mvn -B -q -Pjava21,reactive -DskipTests package
+JAR=$(ls target/task-manager-*.jar | grep -v original | head -n 1)
+
+seed=true
+for mode in $MODES; do
+    case "$mode" in
+        platform)
+            command=(java -jar "$JAR")
+            ;;
+        virtual-threads)
+            command=(java -jar "$JAR" --spring.profiles.active=virtual-threads)
+            ;;
+        reactive)
+            command=(java -cp "$JAR" -Dloader.main=org.petukhov.taskmanager.reactive.ReactiveTaskManagerApplication
+                org.springframework.boot.loader.launch.PropertiesLauncher)
+            ;;
+        *)
+            echo "Unknown mode: $mode" >&2
+            exit 1
+            ;;
+    esac
+    "${command[@]}" --server.port="$PORT" > "target/app-$mode.log" 2>&1 &
+    app_pid=$!
+    trap 'kill "$app_pid" 2>/dev/null || true' EXIT
+
+    until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do
+        sleep 1
+    done
+
+    mvn -B -q -Pbenchmark,java21 -DskipTests test-compile exec:exec@load-test \
+        -Dload.url="http://localhost:$PORT" \
+        -Dload.seed="$seed" \
+        -Dload.concurrency="$CONCURRENCY" \
+        -Dload.duration="$DURATION" \
+        -Dload.result="target/load-$mode.json"
+    seed=false
+
+    kill "$app_pid"
+    wait "$app_pid" 2>/dev/null || true
+done
+
+for mode in $MODES; do
+    printf '%-16s %s\n' "$mode:" "$(cat "target/load-$mode.json")"
+done
@@ -0,0 +1,44 @@
+package org.petukhov.taskmanager.benchmark;
+
+import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.entity.Task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Детерминированные данные для бенчмарков, чтобы результаты разных запусков были сравнимы.
+ */
+final class BenchmarkData {
+
+    private static final LocalDateTime BASE_DUE_DATE = LocalDateTime.of(2024, 4, 1, 12, 0);
+
+    private BenchmarkData() {
+    }
+
+    static Task task(long index) {
+        Task task = new Task();
+        task.setTitle("Task " + index);
+        task.setDescription("Description of task " + index + " with a few more words to serialize");
+        task.setDueDate(BASE_DUE_DATE.plusHours(index));
+        task.setCompleted(index % 3 == 0);
+        return task;
+    }
+
+    static CreateTaskDTO createTaskDTO(long index) {
+        Task task = task(index);
+        return new CreateTaskDTO(task.getTitle(), task.getDescription(), task.getDueDate());
+    }
+
+    static List<TaskInfoDTO> taskInfoDTOs(int count) {
+        List<TaskInfoDTO> taskInfoDTOs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = task(i);
+            taskInfoDTOs.add(new TaskInfoDTO((long) i + 1, task.getTitle(), task.getDescription(),
+                    task.getDueDate(), task.isCompleted(), 0L));
+        }
+        return taskInfoDTOs;
+    }
+}
@@ -0,0 +1,208 @@
+package org.petukhov.taskmanager.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Нагрузочный тест запущенного приложения по HTTP с замкнутым циклом:
+ * каждый клиент отправляет следующий запрос после получения ответа.
+ * Результат (пропускная способность, перцентили задержки, число ошибок и
+ * средний размер тела ответа в байтах) выводится в формате JSON и сохраняется в файл.
+ * <p>
+ * Параметры задаются системными свойствами:
+ * load.url, load.path, load.page-size, load.tasks, load.seed, load.concurrency, load.warmup,
+ * load.duration, load.result, load.http2, load.compression.
+ * Перед тестом создается load.tasks задач, если load.seed не равно false.
+ * В пути можно использовать {page} и {id}, они заменяются случайными значениями
+ * в пределах этого числа задач; номер страницы выбирается с учетом load.page-size.
+ * При load.http2=true запросы идут по HTTP/2 без TLS (h2c), при load.compression=true
+ * клиент запрашивает ответ в gzip. Тело ответа не распаковывается, поэтому его размер
+ * равен числу байт, переданных по сети.
+ */
+public final class HttpLoadTest {
+
+    private static final int SEED_CHUNK_SIZE = 500;
+    private static final int PAGE_SIZE = 20;
+
+    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final String path;
+    private final int pageSize;
+    private final int taskCount;
+    private final boolean compression;
+
+    private HttpLoadTest(String baseUrl, String path, int pageSize, int taskCount, boolean http2, boolean compression) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.baseUrl = baseUrl;
+        this.path = path;
+        this.pageSize = pageSize;
+        this.taskCount = taskCount;
+        this.compression = compression;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int pageSize = Integer.getInteger("load.page-size", PAGE_SIZE);
+        HttpLoadTest loadTest = new HttpLoadTest(
+                System.getProperty("load.url", "http://localhost:8080"),
+                System.getProperty("load.path", "/tasks?page={page}&size=" + pageSize),
+                pageSize,
+                Integer.getInteger("load.tasks", 10_000),
+                Boolean.getBoolean("load.http2"),
+                Boolean.getBoolean("load.compression"));
+        int concurrency = Integer.getInteger("load.concurrency", 500);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmup", 10));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration", 30));
+
+        if (Boolean.parseBoolean(System.getProperty("load.seed", "true"))) {
+            loadTest.seed();
+        }
+        loadTest.run(concurrency, warmup);
+        String result = loadTest.run(concurrency, duration).toJson(concurrency);
+        System.out.println(result);
+        String resultFile = System.getProperty("load.result");
+        if (resultFile != null) {
+            Path resultPath = Path.of(resultFile);
+            if (resultPath.getParent() != null) {
+                Files.createDirectories(resultPath.getParent());
+            }
+            Files.writeString(resultPath, result + System.lineSeparator());
+        }
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        for (int start = 0; start < taskCount; start += SEED_CHUNK_SIZE) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = start; i < Math.min(start + SEED_CHUNK_SIZE, taskCount); i++) {
+                if (i > start) {
+                    body.append(',');
+                }
+                body.append("{\"title\":\"Load task ").append(i)
+                        .append("\",\"description\":\"Created by the load test\"}");
+            }
+            body.append(']');
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/tasks/batch"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException("Seeding failed with status " + response.statusCode());
+            }
+        }
+    }
+
+    private Result run(int concurrency, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong responseBytes = new AtomicLong();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<LatencyRecorder>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(clients.submit(() -> {
+                    LatencyRecorder recorder = new LatencyRecorder();
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<byte[]> response = httpClient.send(nextRequest(),
+                                    HttpResponse.BodyHandlers.ofByteArray());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                            responseBytes.addAndGet(response.body().length);
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                        recorder.record(System.nanoTime() - start);
+                    }
+                    return recorder;
+                }));
+            }
+            LatencyRecorder total = new LatencyRecorder();
+            for (Future<LatencyRecorder> future : futures) {
+                total.addAll(future.get());
+            }
+            return new Result(total.sorted(), errors.get(), responseBytes.get(), duration);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private HttpRequest nextRequest() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String uri = path
+                .replace("{page}", String.valueOf(random.nextInt(Math.max(taskCount / pageSize, 1)) + 1))
+                .replace("{id}", String.valueOf(random.nextInt(taskCount) + 1));
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + uri))
+                .timeout(Duration.ofSeconds(30))
+                .GET();
+        if (compression) {
+            request.header("Accept-Encoding", "gzip");
+        }
+        return request.build();
+    }
+
+    private static final class LatencyRecorder {
+
+        private long[] latencies = new long[1024];
+        private int size;
+
+        void record(long latency) {
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latency;
+        }
+
+        void addAll(LatencyRecorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.latencies[i]);
+            }
+        }
+
+        long[] sorted() {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+
+    private record Result(long[] latencies, long errors, long responseBytes, Duration duration) {
+
+        String toJson(int concurrency) {
+            return String.format(Locale.ROOT,
+                    "{\"concurrency\":%d,\"requests\":%d,\"errors\":%d,\"throughput\":%.1f,"
+                            + "\"p50Millis\":%.2f,\"p99Millis\":%.2f,\"maxMillis\":%.2f,\"avgResponseBytes\":%d}",
+                    concurrency, latencies.length, errors,
+                    latencies.length / (duration.toMillis() / 1000.0),
+                    percentile(0.50), percentile(0.99), percentile(1.0),
+                    latencies.length == 0 ? 0 : responseBytes / latencies.length);
+        }
+
+        private double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
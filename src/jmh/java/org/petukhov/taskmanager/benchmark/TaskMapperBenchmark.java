@@ -0,0 +1,44 @@
+package org.petukhov.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.entity.Task;
+import org.petukhov.taskmanager.mapper.TaskMapper;
+import org.petukhov.taskmanager.mapper.TaskMapperImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк преобразований задачи, сгенерированных MapStruct.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    private TaskMapper taskMapper;
+    private Task task;
+    private CreateTaskDTO createTaskDTO;
+
+    @Setup
+    public void setup() {
+        taskMapper = new TaskMapperImpl();
+        task = BenchmarkData.task(1);
+        task.setId(1L);
+        createTaskDTO = BenchmarkData.createTaskDTO(1);
+    }
+
+    @Benchmark
+    public TaskInfoDTO toTaskInfoDTO() {
+        return taskMapper.toTaskInfoDTO(task);
+    }
+
+    @Benchmark
+    public Task toEntityTask() {
+        return taskMapper.toEntityTask(createTaskDTO);
+    }
+}
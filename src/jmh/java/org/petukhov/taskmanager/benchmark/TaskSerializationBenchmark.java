@@ -0,0 +1,63 @@
+package org.petukhov.taskmanager.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.type.CollectionType;
+import org.openjdk.jmh.annotations.*;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк сериализации и десериализации страницы задач в JSON, Smile и CBOR
+ * при разных размерах страницы. ObjectMapper настраивается так же, как в Spring MVC.
+ * Размер сериализованной страницы выводится при подготовке каждого набора параметров.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TaskSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int pageSize;
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<TaskInfoDTO> page;
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = switch (format) {
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        CollectionType pageType = objectMapper.getTypeFactory().constructCollectionType(List.class, TaskInfoDTO.class);
+        writer = objectMapper.writerFor(pageType);
+        reader = objectMapper.readerFor(pageType);
+        page = BenchmarkData.taskInfoDTOs(pageSize);
+        payload = writer.writeValueAsBytes(page);
+        System.out.printf("%n%s, %d задач: %d байт%n", format, pageSize, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<TaskInfoDTO> deserializePage() throws IOException {
+        return reader.readValue(payload);
+    }
+}
@@ -0,0 +1,94 @@
+package org.petukhov.taskmanager.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.petukhov.taskmanager.TaskManagerApplication;
+import org.petukhov.taskmanager.cache.TaskInfoCache;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.entity.Task;
+import org.petukhov.taskmanager.repository.TaskRepository;
+import org.petukhov.taskmanager.service.TaskService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Бенчмарк чтения задач через сервис на встроенной базе H2 с заранее созданными задачами.
+ * Контекст приложения поднимается один раз на форк с профилем test.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final int SEED_CHUNK_SIZE = 500;
+
+    @Param({"10000"})
+    private int taskCount;
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskInfoCache taskInfoCache;
+    private long firstTaskId;
+    private int pageCount;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = new SpringApplicationBuilder(TaskManagerApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--logging.level.root=WARN");
+        taskService = context.getBean(TaskService.class);
+        taskInfoCache = context.getBean(TaskInfoCache.class);
+
+        TaskRepository taskRepository = context.getBean(TaskRepository.class);
+        List<Task> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+        for (int i = 0; i < taskCount; i++) {
+            chunk.add(BenchmarkData.task(i));
+            if (chunk.size() == SEED_CHUNK_SIZE || i == taskCount - 1) {
+                taskRepository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+        firstTaskId = taskRepository.findAllBy(PageRequest.of(0, 1, Sort.by("id"))).getContent().get(0).getId();
+        pageCount = taskCount / pageSize;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TaskInfoDTO> getAllTasks() {
+        return taskService.getAllTasks(ThreadLocalRandom.current().nextInt(pageCount) + 1, pageSize);
+    }
+
+    @Benchmark
+    public TaskInfoDTO getTaskInfo_Cached() {
+        return taskService.getTaskInfo(randomTaskId());
+    }
+
+    @Benchmark
+    public TaskInfoDTO getTaskInfo_Uncached() {
+        long taskId = randomTaskId();
+        taskInfoCache.evict(taskId);
+        return taskService.getTaskInfo(taskId);
+    }
+
+    private long randomTaskId() {
+        return firstTaskId + ThreadLocalRandom.current().nextInt(taskCount);
+    }
+}
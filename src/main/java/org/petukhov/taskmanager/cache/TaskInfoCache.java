@@ -0,0 +1,89 @@
+package org.petukhov.taskmanager.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.petukhov.taskmanager.datasource.PrimaryReads;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Supplier;
+
+/**
+ * Кэш информации о задачах по ID.
+ * <p>
+ * Загрузка записи выполняется атомарно для ключа, а удаление записи ждет
+ * завершения идущей загрузки, поэтому после записи через этот узел
+ * устаревшие данные из кэша не читаются. Возвращаемые DTO общие для всех
+ * читателей и не должны изменяться.
+ * <p>
+ * Загрузчик выполняется с чтением из основной базы ({@link PrimaryReads}):
+ * запись, загруженная с отстающей реплики, оставалась бы в кэше до истечения
+ * времени жизни, и клиент не увидел бы своего изменения.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskInfoCache {
+
+    public static final String CACHE_NAME = "tasks";
+
+    private final CacheManager cacheManager;
+
+    /**
+     * Получение информации о задаче из кэша или через загрузчик.
+     *
+     * @param taskId ID задачи.
+     * @param loader Загрузчик информации о задаче при промахе.
+     * @return Информация о задаче.
+     */
+    public TaskInfoDTO get(Long taskId, Supplier<TaskInfoDTO> loader) {
+        try {
+            return cache().get(taskId, () -> PrimaryReads.get(loader));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Получение информации о задаче, только если она уже есть в кэше.
+     * Кэш при этом не заполняется.
+     *
+     * @param taskId ID задачи.
+     * @return Информация о задаче или null при промахе.
+     */
+    public TaskInfoDTO getIfPresent(Long taskId) {
+        return cache().get(taskId, TaskInfoDTO.class);
+    }
+
+    /**
+     * Удаление информации о задаче из кэша.
+     * Если вызов выполняется внутри транзакции, запись удаляется повторно
+     * после ее завершения, чтобы не остались данные, прочитанные до фиксации.
+     *
+     * @param taskId ID задачи.
+     */
+    public void evict(Long taskId) {
+        cache().evict(taskId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache().evict(taskId);
+                }
+            });
+        }
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            throw new IllegalStateException("Кэш " + CACHE_NAME + " не настроен");
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,13 @@
+package org.petukhov.taskmanager.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Включение кэширования. Размер и время жизни записей задаются
+ * свойством spring.cache.caffeine.spec.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+}
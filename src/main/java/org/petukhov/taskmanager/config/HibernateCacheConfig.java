@@ -0,0 +1,62 @@
+package org.petukhov.taskmanager.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+import java.util.OptionalLong;
+
+/**
+ * Кэш второго уровня Hibernate на Caffeine через JCache.
+ * <p>
+ * Области кэша создаются заранее с размером и временем жизни из
+ * {@link HibernateCacheProperties}. Область меток обновления таблиц не
+ * ограничивается: по ней Hibernate определяет устаревшие результаты запросов.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String TASK_REGION = "task";
+    public static final String TASK_QUERY_REGION = "task-queries";
+
+    private static final String DEFAULT_QUERY_RESULTS_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        CachingProvider cachingProvider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = cachingProvider.getCacheManager(cachingProvider.getDefaultURI(), getClass().getClassLoader());
+        createRegion(cacheManager, TASK_REGION, properties.getEntityMaxSize(), properties.getEntityTtl());
+        createRegion(cacheManager, TASK_QUERY_REGION, properties.getQueryMaxSize(), properties.getQueryTtl());
+        createRegion(cacheManager, DEFAULT_QUERY_RESULTS_REGION, properties.getQueryMaxSize(), properties.getQueryTtl());
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, null, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, Long maxSize, Duration ttl) {
+        if (cacheManager.getCache(name) != null) {
+            cacheManager.destroyCache(name);
+        }
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (ttl != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,36 @@
+package org.petukhov.taskmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки кэша второго уровня Hibernate.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "task-manager.hibernate-cache")
+public class HibernateCacheProperties {
+
+    /**
+     * Максимальное количество задач в кэше сущностей.
+     */
+    private long entityMaxSize = 10_000;
+
+    /**
+     * Время жизни задачи в кэше сущностей.
+     */
+    private Duration entityTtl = Duration.ofMinutes(10);
+
+    /**
+     * Максимальное количество результатов запросов в кэше запросов.
+     */
+    private long queryMaxSize = 1_000;
+
+    /**
+     * Время жизни результата запроса в кэше запросов.
+     */
+    private Duration queryTtl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,89 @@
+package org.petukhov.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.petukhov.taskmanager.datasource.ReadYourWritesFilter;
+import org.petukhov.taskmanager.datasource.ReplicaAwareJpaDialect;
+import org.petukhov.taskmanager.datasource.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Чтение с реплик базы данных.
+ * <p>
+ * Включается, если задана хотя бы одна реплика task-manager.datasource.replicas.
+ * Основная база по-прежнему настраивается свойствами spring.datasource и
+ * spring.datasource.hikari. Транзакции только для чтения выполняются на репликах,
+ * остальные запросы - в основной базе. Результаты чтения с реплик не попадают
+ * в кэш второго уровня Hibernate ({@link ReplicaAwareJpaDialect}).
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "task-manager.datasource", name = "replicas[0].url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             TaskDataSourceProperties properties,
+                                                             Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+
+        List<DataSource> replicas = new ArrayList<>(properties.getReplicas().size());
+        for (TaskDataSourceProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource replicaDataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            replicaDataSource.setPoolName("replica-" + replicas.size());
+            replicaDataSource.setReadOnly(true);
+            replicas.add(replicaDataSource);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, properties.getHealthCheckTimeout());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialectPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean entityManagerFactoryBean) {
+                    entityManagerFactoryBean.setJpaDialect(new ReplicaAwareJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(TaskDataSourceProperties properties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties.getReadYourWritesWindow()));
+        registration.setEnabled(!properties.getReadYourWritesWindow().isZero());
+        return registration;
+    }
+}
@@ -0,0 +1,12 @@
+package org.petukhov.taskmanager.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включение фоновых задач по расписанию.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
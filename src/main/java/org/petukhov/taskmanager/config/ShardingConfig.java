@@ -0,0 +1,108 @@
+package org.petukhov.taskmanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.petukhov.taskmanager.repository.TaskStore;
+import org.petukhov.taskmanager.sharding.ShardedTaskRepository;
+import org.petukhov.taskmanager.sharding.ShardedTaskStore;
+import org.petukhov.taskmanager.sharding.ShardsEndpoint;
+import org.petukhov.taskmanager.sharding.TaskShard;
+import org.petukhov.taskmanager.sharding.TaskShardRebalancer;
+import org.petukhov.taskmanager.sharding.TaskShards;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Распределение задач по нескольким базам данных.
+ * <p>
+ * Включается, если задан хотя бы один шард task-manager.sharding.shards. Задачи
+ * хранятся в шардах, а в базе spring.datasource остаются архив, outbox и статистика.
+ * Сервис задач работает с шардами через {@link ShardedTaskStore}.
+ * Распределение корзин читается при запуске, поэтому после перераспределения
+ * остальные экземпляры приложения необходимо перезапустить.
+ * Перенос в архив и напоминания о сроках читают таблицу tasks основной базы,
+ * поэтому вместе с шардированием они должны быть выключены.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "task-manager.sharding", name = "shards[0].url")
+public class ShardingConfig {
+
+    private static final String SCHEMA = "db/sharding/task-shard.sql";
+    private static final String POSTGRESQL_SCHEMA = "db/sharding/task-shard-postgresql.sql";
+
+    @Bean(destroyMethod = "close")
+    public TaskShards taskShards(TaskShardingProperties properties,
+                                 TaskArchiveProperties archiveProperties,
+                                 TaskReminderProperties reminderProperties) {
+        if (archiveProperties.isEnabled() || reminderProperties.isEnabled()) {
+            throw new IllegalStateException("Шардирование задач несовместимо с переносом в архив и напоминаниями: "
+                    + "задайте task-manager.archive.enabled=false и task-manager.reminders.enabled=false");
+        }
+        if (properties.getBuckets() < properties.getShards().size()) {
+            throw new IllegalStateException("Количество корзин task-manager.sharding.buckets "
+                    + "не может быть меньше количества шардов");
+        }
+        List<TaskShard> shards = new ArrayList<>(properties.getShards().size());
+        for (TaskShardingProperties.Shard shard : properties.getShards()) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername())
+                    .password(shard.getPassword())
+                    .build();
+            dataSource.setPoolName("shard-" + shards.size());
+            if (properties.isInitializeSchema()) {
+                initializeSchema(dataSource);
+            }
+            shards.add(new TaskShard(shards.size(), dataSource));
+        }
+        return new TaskShards(shards, properties.getBuckets(), properties.getParallelism());
+    }
+
+    @Bean
+    public ShardedTaskRepository shardedTaskRepository(TaskShards taskShards) {
+        return new ShardedTaskRepository(taskShards);
+    }
+
+    /**
+     * Хранилище задач в шардах вместо хранилища в основной базе данных.
+     */
+    @Bean
+    @Primary
+    public TaskStore shardedTaskStore(TaskShards taskShards, ShardedTaskRepository shardedTaskRepository) {
+        return new ShardedTaskStore(taskShards, shardedTaskRepository);
+    }
+
+    @Bean
+    public TaskShardRebalancer taskShardRebalancer(TaskShards taskShards, ShardedTaskRepository shardedTaskRepository) {
+        return new TaskShardRebalancer(taskShards, shardedTaskRepository);
+    }
+
+    @Bean
+    public ShardsEndpoint shardsEndpoint(TaskShardRebalancer taskShardRebalancer) {
+        return new ShardsEndpoint(taskShardRebalancer);
+    }
+
+    private static void initializeSchema(HikariDataSource dataSource) {
+        ResourceDatabasePopulator populator = new ResourceDatabasePopulator(new ClassPathResource(SCHEMA));
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            if ("PostgreSQL".equalsIgnoreCase(product)) {
+                populator.addScript(new ClassPathResource(POSTGRESQL_SCHEMA));
+            }
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Не удалось определить тип базы данных шарда " + dataSource.getPoolName(), e);
+        }
+        populator.execute(dataSource);
+    }
+}
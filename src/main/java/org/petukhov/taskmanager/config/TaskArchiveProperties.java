@@ -0,0 +1,32 @@
+package org.petukhov.taskmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки переноса выполненных задач в архив.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "task-manager.archive")
+public class TaskArchiveProperties {
+
+    /**
+     * Включение переноса задач в архив по расписанию.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Расписание переноса в формате cron.
+     */
+    private String cron = "0 0 3 * * *";
+
+    /**
+     * Выполненная задача переносится в архив, если ее срок истек раньше,
+     * чем retention назад.
+     */
+    private Duration retention = Duration.ofDays(30);
+}
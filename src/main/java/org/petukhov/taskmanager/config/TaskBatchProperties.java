@@ -0,0 +1,24 @@
+package org.petukhov.taskmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Настройки пакетной обработки задач.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "task-manager.batch")
+public class TaskBatchProperties {
+
+    /**
+     * Максимальное количество задач в одном пакетном запросе.
+     */
+    private int maxSize = 10_000;
+
+    /**
+     * Количество задач, сохраняемых, удаляемых или изменяемых в одной транзакции.
+     */
+    private int chunkSize = 500;
+}
@@ -0,0 +1,48 @@
+package org.petukhov.taskmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки реплик базы данных для чтения.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "task-manager.datasource")
+public class TaskDataSourceProperties {
+
+    /**
+     * Реплики, на которые направляются транзакции только для чтения.
+     * Если список пуст, все запросы идут в базу spring.datasource.
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Интервал между проверками доступности реплик.
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * Время ожидания ответа реплики при проверке доступности.
+     */
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Время после запроса на изменение, в течение которого чтения того же клиента
+     * идут в основную базу, чтобы он видел свои изменения до того, как они дойдут до реплик.
+     * 0 отключает.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,72 @@
+package org.petukhov.taskmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки асинхронного создания задач через очередь.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "task-manager.ingest")
+public class TaskIngestProperties {
+
+    /**
+     * Поведение при заполненной очереди.
+     */
+    public enum OverflowPolicy {
+        /**
+         * Сразу отклонить задачу.
+         */
+        REJECT,
+        /**
+         * Ждать освобождения места не дольше block-timeout, затем отклонить задачу.
+         */
+        BLOCK
+    }
+
+    /**
+     * Включение асинхронного создания задач. Если выключено, задачи создаются синхронно.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Максимальное количество задач в очереди.
+     */
+    private int capacity = 10_000;
+
+    /**
+     * Максимальное количество задач, сохраняемых за один сброс очереди.
+     * Не должно превышать task-manager.batch.max-size.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Поведение при заполненной очереди.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.REJECT;
+
+    /**
+     * Максимальное время ожидания места в очереди при политике BLOCK.
+     */
+    private Duration blockTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Максимальное время сохранения оставшихся в очереди задач при остановке приложения.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Время хранения статуса задачи после постановки в очередь.
+     */
+    private Duration statusRetention = Duration.ofMinutes(10);
+
+    /**
+     * Максимальное количество хранимых статусов. При превышении самые старые
+     * статусы удаляются раньше истечения status-retention.
+     */
+    private long maxStatuses = 100_000;
+}
@@ -0,0 +1,41 @@
+package org.petukhov.taskmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки ленты изменений задач.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "task-manager.outbox")
+public class TaskOutboxProperties {
+
+    /**
+     * Интервал между публикациями новых изменений из таблицы task_outbox.
+     */
+    private Duration relayInterval = Duration.ofMillis(500);
+
+    /**
+     * Максимальное количество изменений, публикуемых в одной транзакции.
+     */
+    private int batchSize = 500;
+
+    /**
+     * Время хранения опубликованных изменений.
+     */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * Интервал между удалениями устаревших изменений.
+     */
+    private Duration purgeInterval = Duration.ofHours(1);
+
+    /**
+     * Максимальное время ожидания новых изменений в запросе GET /tasks/changes.
+     */
+    private Duration maxWait = Duration.ofSeconds(60);
+}
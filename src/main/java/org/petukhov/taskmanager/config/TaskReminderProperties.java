@@ -0,0 +1,33 @@
+package org.petukhov.taskmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки напоминаний о наступлении срока задач.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "task-manager.reminders")
+public class TaskReminderProperties {
+
+    /**
+     * Включение напоминаний.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Окно, на которое вперед загружаются задачи с наступающим сроком.
+     * Следующее окно загружается, когда до конца текущего остается половина окна.
+     */
+    private Duration window = Duration.ofHours(1);
+
+    /**
+     * Максимальное количество задач, ожидающих наступления срока в памяти.
+     * Если в окно попадает больше задач, окно сокращается.
+     */
+    private int maxScheduled = 1_000_000;
+}
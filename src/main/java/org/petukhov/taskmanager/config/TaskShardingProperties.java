@@ -0,0 +1,47 @@
+package org.petukhov.taskmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Настройки распределения задач по нескольким базам данных.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "task-manager.sharding")
+public class TaskShardingProperties {
+
+    /**
+     * Базы данных (шарды), по которым распределяются задачи. Первая из них хранит
+     * распределение корзин и последовательность ID. Если список пуст, задачи
+     * хранятся в базе spring.datasource.
+     */
+    private List<Shard> shards = new ArrayList<>();
+
+    /**
+     * Количество корзин. Задача попадает в корзину по остатку от деления ID,
+     * корзины распределяются между шардами. Не изменяется после первого запуска.
+     */
+    private int buckets = 1024;
+
+    /**
+     * Максимальное количество одновременных запросов к шардам при чтении со всех шардов.
+     */
+    private int parallelism = 4;
+
+    /**
+     * Создание таблиц в шардах при запуске, если их нет.
+     */
+    private boolean initializeSchema = true;
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,26 @@
+package org.petukhov.taskmanager.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки статистики по задачам.
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "task-manager.stats")
+public class TaskStatsProperties {
+
+    /**
+     * Интервал между сохранениями счетчиков в таблицу task_stats.
+     */
+    private Duration flushInterval = Duration.ofMinutes(1);
+
+    /**
+     * Расписание пересчета счетчиков по таблице tasks в формате cron.
+     */
+    private String reconcileCron = "0 30 3 * * *";
+}
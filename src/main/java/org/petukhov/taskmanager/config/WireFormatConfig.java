@@ -0,0 +1,36 @@
+package org.petukhov.taskmanager.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Компактные бинарные форматы запросов и ответов: Smile (application/x-jackson-smile)
+ * и CBOR (application/cbor). Формат ответа выбирается по заголовку Accept,
+ * формат тела запроса - по заголовку Content-Type.
+ * <p>
+ * Конвертеры добавляются после JSON, поэтому при Accept: *&#47;* или без
+ * заголовка ответ по-прежнему возвращается в JSON. ObjectMapper для бинарных
+ * форматов копируется из основного, так что настройки spring.jackson.*
+ * действуют одинаково.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class WireFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory())));
+        converters.add(new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory())));
+    }
+}
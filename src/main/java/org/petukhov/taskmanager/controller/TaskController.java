@@ -5,13 +5,39 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskBatchResultDTO;
+import org.petukhov.taskmanager.dto.TaskBulkRequestDTO;
+import org.petukhov.taskmanager.dto.TaskBulkResultDTO;
+import org.petukhov.taskmanager.dto.TaskChangeDTO;
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.petukhov.taskmanager.dto.TaskIngestStatusDTO;
 import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.dto.TaskLookupDTO;
+import org.petukhov.taskmanager.dto.TaskPatchDTO;
+import org.petukhov.taskmanager.dto.TaskSliceDTO;
+import org.petukhov.taskmanager.dto.TaskStatsDTO;
+import org.petukhov.taskmanager.exception.InvalidRequestException;
+import org.petukhov.taskmanager.exception.TaskVersionConflictException;
+import org.petukhov.taskmanager.service.TaskChangeService;
+import org.petukhov.taskmanager.service.TaskIngestService;
 import org.petukhov.taskmanager.service.TaskService;
+import org.petukhov.taskmanager.service.TaskStatsService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 
 @RestController
@@ -20,45 +46,213 @@ import java.util.List;
 @Tag(name = "Задачи")
 public class TaskController {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * Запас времени сверх ожидания изменений. Запрос ленты изменений завершается
+     * по собственному тайм-ауту, а не по общему spring.mvc.async.request-timeout,
+     * рассчитанному на долгую выгрузку.
+     */
+    private static final Duration CHANGES_TIMEOUT_MARGIN = Duration.ofSeconds(5);
+    private static final Pattern ENTITY_TAG = Pattern.compile("\\s*(W/)?\"([^\"]*)\"\\s*(?:,|$)");
+
     private final TaskService taskService;
+    private final TaskIngestService taskIngestService;
+    private final TaskChangeService taskChangeService;
+    private final TaskStatsService taskStatsService;
 
     /**
      * Добавление задачи.
+     * Если включено асинхронное создание задач, задача ставится в очередь,
+     * а в ответе возвращается ее статус с идентификатором отслеживания.
      *
      * @param createTaskDTO DTO для создания задачи.
-     * @return 201 Created, если задача успешно создана.
+     * @return 201 Created, если задача успешно создана, или 202 Accepted, если задача поставлена в очередь.
      */
     @PostMapping
     @Operation(summary = "Добавление задачи")
-    public ResponseEntity<Void> createTask(@Valid @RequestBody CreateTaskDTO createTaskDTO) {
+    public ResponseEntity<TaskIngestStatusDTO> createTask(@Valid @RequestBody CreateTaskDTO createTaskDTO) {
+        if (taskIngestService.isEnabled()) {
+            TaskIngestStatusDTO status = taskIngestService.submit(createTaskDTO);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/tasks/ingest/" + status.getTrackingId()))
+                    .body(status);
+        }
         taskService.createTask(createTaskDTO);
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
 
+    /**
+     * Получение статуса задачи, поставленной в очередь на создание.
+     *
+     * @param trackingId Идентификатор отслеживания.
+     * @return 200 OK со статусом задачи.
+     */
+    @GetMapping("/ingest/{trackingId}")
+    @Operation(summary = "Получить статус задачи, поставленной в очередь на создание")
+    public ResponseEntity<TaskIngestStatusDTO> getIngestStatus(@PathVariable UUID trackingId) {
+        return ResponseEntity.ok(taskIngestService.getStatus(trackingId));
+    }
+
+    /**
+     * Пакетное добавление задач.
+     *
+     * @param createTaskDTOs DTO для создания задач.
+     * @return 201 Created, если созданы все задачи, иначе 207 Multi-Status с результатом по каждой задаче.
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "Пакетное добавление задач")
+    public ResponseEntity<List<TaskBatchResultDTO>> createTasks(@RequestBody List<CreateTaskDTO> createTaskDTOs) {
+        List<TaskBatchResultDTO> results = taskService.createTasks(createTaskDTOs);
+        boolean allCreated = results.stream().allMatch(TaskBatchResultDTO::isCreated);
+        return ResponseEntity.status(allCreated ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS).body(results);
+    }
+
     /**
      * Получение информации по задаче по ее ID.
+     * В заголовке ETag возвращается версия задачи. Если она совпадает с одним из значений
+     * заголовка If-None-Match, возвращается 304 Not Modified без тела ответа; задача
+     * при этом не читается целиком, проверяется только ее версия.
      *
-     * @param taskId ID задачи.
-     * @return 200 OK, если задача найдена.
+     * @param taskId      ID задачи.
+     * @param ifNoneMatch ETag задачи, полученные при ее чтении.
+     * @return 200 OK, если задача найдена, или 304 Not Modified, если она не изменилась.
      */
     @GetMapping("/{taskId}")
     @Operation(summary = "Получить информацию по задаче по ее ID")
-    public ResponseEntity<TaskInfoDTO> getTaskInfo(@PathVariable Long taskId) {
-        return ResponseEntity.ok(taskService.getTaskInfo(taskId));
+    public ResponseEntity<TaskInfoDTO> getTaskInfo(@PathVariable Long taskId,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        List<EntityTag> tags = entityTags(ifNoneMatch, HttpHeaders.IF_NONE_MATCH);
+        if (tags != null) {
+            long version = taskService.getTaskVersion(taskId);
+            if (tags.isEmpty() || tags.stream().anyMatch(tag -> tag.value().equals(String.valueOf(version)))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag(version)).build();
+            }
+        }
+        TaskInfoDTO taskInfoDTO = taskService.getTaskInfo(taskId);
+        return ResponseEntity.ok()
+                .eTag(eTag(taskInfoDTO.getVersion()))
+                .body(taskInfoDTO);
     }
 
     /**
      * Получение информации по всем задачам.
+     * Если номер страницы не указан, задачи читаются по курсору:
+     * курсор следующей порции возвращается в заголовке X-Next-Cursor.
      *
      * @param pageNumber Номер страницы.
      * @param pageSize   Размер страницы.
+     * @param after      Курсор, полученный с предыдущей порцией.
+     * @param filter     Условия отбора задач: completed, dueFrom, dueTo, overdue.
      * @return 200 OK, если задачи найдены.
      */
     @GetMapping
     @Operation(summary = "Получить информацию по всем задачам")
-    public ResponseEntity<List<TaskInfoDTO>> getAllTasks(@RequestParam(value = "page") Integer pageNumber,
-                                                         @RequestParam(value = "size") Integer pageSize) {
-        return ResponseEntity.ok(taskService.getAllTasks(pageNumber, pageSize));
+    public ResponseEntity<List<TaskInfoDTO>> getAllTasks(@RequestParam(value = "page", required = false) Integer pageNumber,
+                                                         @RequestParam(value = "size") Integer pageSize,
+                                                         @RequestParam(value = "after", required = false) String after,
+                                                         TaskFilterDTO filter) {
+        if (pageNumber != null) {
+            if (after != null) {
+                throw new InvalidRequestException("Параметры page и after нельзя указывать одновременно");
+            }
+            return ResponseEntity.ok(taskService.getAllTasks(filter, pageNumber, pageSize));
+        }
+        return sliceResponse(taskService.getTasksAfter(filter, after, pageSize));
+    }
+
+    /**
+     * Получение информации по задачам по списку ID одним запросом.
+     *
+     * @param taskIds ID задач.
+     * @return 200 OK с найденными задачами в порядке запроса и списком ненайденных ID.
+     */
+    @PostMapping("/lookup")
+    @Operation(summary = "Получить информацию по задачам по списку ID")
+    public ResponseEntity<TaskLookupDTO> getTasksByIds(@RequestBody List<Long> taskIds) {
+        return ResponseEntity.ok(taskService.getTasksByIds(taskIds));
+    }
+
+    /**
+     * Полнотекстовый поиск задач по названию и описанию.
+     * Курсор следующей порции возвращается в заголовке X-Next-Cursor.
+     *
+     * @param query    Поисковый запрос.
+     * @param pageSize Размер порции.
+     * @param after    Курсор, полученный с предыдущей порцией.
+     * @return 200 OK с задачами в порядке убывания релевантности.
+     */
+    @GetMapping("/search")
+    @Operation(summary = "Поиск задач по названию и описанию")
+    public ResponseEntity<List<TaskInfoDTO>> searchTasks(@RequestParam(value = "q") String query,
+                                                         @RequestParam(value = "size") Integer pageSize,
+                                                         @RequestParam(value = "after", required = false) String after) {
+        return sliceResponse(taskService.searchTasks(query, after, pageSize));
+    }
+
+    /**
+     * Получение сводной статистики по задачам. Статистика читается из счетчиков
+     * в памяти, без подсчета строк таблицы задач.
+     *
+     * @return 200 OK с количеством задач всего, выполненных, невыполненных и невыполненных по срокам.
+     */
+    @GetMapping("/stats")
+    @Operation(summary = "Получить статистику по задачам")
+    public ResponseEntity<TaskStatsDTO> getStats() {
+        return ResponseEntity.ok(taskStatsService.getStats());
+    }
+
+    /**
+     * Получение изменений задач после указанной позиции с долгим опросом.
+     * Если новых изменений нет, ответ отправляется, как только они появятся,
+     * или по истечении времени ожидания с пустым списком. Позиция, с которой
+     * продолжать чтение, возвращается в заголовке X-Next-Cursor.
+     *
+     * @param since       Позиция последнего полученного изменения.
+     * @param limit       Максимальное количество изменений.
+     * @param waitSeconds Максимальное время ожидания в секундах.
+     * @return 200 OK с изменениями в порядке возрастания позиции.
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Получить изменения задач после указанной позиции")
+    public DeferredResult<ResponseEntity<List<TaskChangeDTO>>> getChanges(
+            @RequestParam(value = "since", defaultValue = "0") Long since,
+            @RequestParam(value = "limit", defaultValue = "100") Integer limit,
+            @RequestParam(value = "wait", defaultValue = "30") Integer waitSeconds) {
+        Duration wait = Duration.ofSeconds(waitSeconds);
+        CompletableFuture<List<TaskChangeDTO>> changes = taskChangeService.getChanges(since, limit, wait);
+        DeferredResult<ResponseEntity<List<TaskChangeDTO>>> result = new DeferredResult<>(
+                wait.plus(CHANGES_TIMEOUT_MARGIN).toMillis(), changesResponse(since, List.of()));
+        changes.whenComplete((found, e) -> {
+            if (e != null) {
+                result.setErrorResult(e);
+            } else {
+                result.setResult(changesResponse(since, found));
+            }
+        });
+        return result;
+    }
+
+    private static ResponseEntity<List<TaskChangeDTO>> changesResponse(Long since, List<TaskChangeDTO> changes) {
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, String.valueOf(changes.isEmpty()
+                        ? since
+                        : changes.get(changes.size() - 1).getPosition()))
+                .body(changes);
+    }
+
+    /**
+     * Выгрузка всех задач в формате NDJSON.
+     * Ответ формируется потоком по мере чтения задач из базы данных.
+     *
+     * @return 200 OK с потоком задач, по одной на строку.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузка всех задач в формате NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(taskService::exportTasks);
     }
 
     /**
@@ -74,16 +268,163 @@ public class TaskController {
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 
+    /**
+     * Массовое удаление задач по списку ID или по фильтру.
+     *
+     * @param request Список ID или фильтр задач.
+     * @return 200 OK с количеством удаленных задач.
+     */
+    @PostMapping("/bulk-delete")
+    @Operation(summary = "Массовое удаление задач по списку ID или фильтру")
+    public ResponseEntity<TaskBulkResultDTO> deleteTasks(@RequestBody TaskBulkRequestDTO request) {
+        return ResponseEntity.ok(taskService.deleteTasks(request));
+    }
+
+    /**
+     * Массовое выполнение задач по списку ID или по фильтру.
+     *
+     * @param request Список ID или фильтр задач.
+     * @return 200 OK с количеством выполненных задач.
+     */
+    @PostMapping("/bulk-complete")
+    @Operation(summary = "Массово отметить задачи как выполненные по списку ID или фильтру")
+    public ResponseEntity<TaskBulkResultDTO> completeTasks(@RequestBody TaskBulkRequestDTO request) {
+        return ResponseEntity.ok(taskService.completeTasks(request));
+    }
+
     /**
      * Обновление информации о задаче.
+     * Если передан заголовок If-Match, задача обновляется только при совпадении версии
+     * с одним из перечисленных ETag. Слабые ETag (W/) с версией не совпадают.
      *
      * @param taskId       ID задачи.
      * @param taskInfoDTO DTO для обновления информации о задаче.
-     * @return 200 OK, если задача успешно обновлена.
+     * @param ifMatch      ETag задачи, полученный при ее чтении.
+     * @return 200 OK с новой версией задачи в заголовке ETag, если задача успешно обновлена,
+     * 400 Bad Request при некорректном If-Match или 412 Precondition Failed, если задача была изменена.
      */
     @PutMapping(value = "/{taskId}")
     @Operation(summary = "Обновление информации о задаче")
-    public ResponseEntity<TaskInfoDTO> updateTaskInfo(@Valid @PathVariable Long taskId, @RequestBody TaskInfoDTO taskInfoDTO) {
-        return ResponseEntity.ok(taskService.updateTaskInfo(taskId, taskInfoDTO));
+    public ResponseEntity<TaskInfoDTO> updateTaskInfo(@Valid @PathVariable Long taskId, @RequestBody TaskInfoDTO taskInfoDTO,
+                                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaskInfoDTO updatedTaskInfoDTO = taskService.updateTaskInfo(taskId, taskInfoDTO,
+                expectedVersion(taskId, ifMatch));
+        return ResponseEntity.ok()
+                .eTag(eTag(updatedTaskInfoDTO.getVersion()))
+                .body(updatedTaskInfoDTO);
+    }
+
+    /**
+     * Частичное обновление задачи.
+     * Если передан заголовок If-Match, задача обновляется только при совпадении версии.
+     *
+     * @param taskId       ID задачи.
+     * @param taskPatchDTO DTO с изменяемыми полями задачи.
+     * @param ifMatch      ETag задачи, полученный при ее чтении.
+     * @return 204 No Content, если задача успешно обновлена, или 412 Precondition Failed, если она была изменена.
+     */
+    @PatchMapping(value = "/{taskId}")
+    @Operation(summary = "Частичное обновление задачи")
+    public ResponseEntity<Void> patchTask(@PathVariable Long taskId, @Valid @RequestBody TaskPatchDTO taskPatchDTO,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        taskService.patchTask(taskId, taskPatchDTO, expectedVersion(taskId, ifMatch));
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
+    /**
+     * Отметка задачи как выполненной.
+     *
+     * @param taskId ID задачи.
+     * @return 204 No Content, если задача отмечена как выполненная.
+     */
+    @PatchMapping(value = "/{taskId}/complete")
+    @Operation(summary = "Отметить задачу как выполненную")
+    public ResponseEntity<Void> completeTask(@PathVariable Long taskId) {
+        taskService.completeTask(taskId);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
+    private static String eTag(long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Версия задачи из заголовка If-Match. Значение * и отсутствие заголовка
+     * означают, что версия не проверяется. ETag сравниваются строго: слабые
+     * ETag не совпадают ни с одной версией. Если в заголовке перечислено
+     * несколько версий, ожидаемой считается та из них, которая совпадает
+     * с текущей версией задачи.
+     *
+     * @throws InvalidRequestException      Если значение заголовка не является списком версий задачи.
+     * @throws TaskVersionConflictException Если ни одна из версий не совпадает с текущей.
+     */
+    private Long expectedVersion(Long taskId, String ifMatch) {
+        List<EntityTag> tags = entityTags(ifMatch, HttpHeaders.IF_MATCH);
+        if (tags == null || tags.isEmpty()) {
+            return null;
+        }
+        List<Long> versions = new ArrayList<>();
+        for (EntityTag tag : tags) {
+            if (!tag.weak()) {
+                try {
+                    versions.add(Long.valueOf(tag.value()));
+                } catch (NumberFormatException e) {
+                    throw new InvalidRequestException("Некорректное значение заголовка If-Match: " + ifMatch);
+                }
+            }
+        }
+        if (versions.size() == 1) {
+            return versions.get(0);
+        }
+        long version = taskService.getTaskVersion(taskId);
+        if (!versions.contains(version)) {
+            throw new TaskVersionConflictException("Задача с id " + taskId + " изменена, ожидаемые версии "
+                    + ifMatch + " устарели");
+        }
+        return version;
+    }
+
+    /**
+     * Список ETag из заголовка If-Match или If-None-Match.
+     *
+     * @return null, если заголовок не передан; пустой список для значения *.
+     * @throws InvalidRequestException Если значение заголовка не является списком ETag.
+     */
+    private static List<EntityTag> entityTags(String header, String headerName) {
+        if (header == null || header.isBlank()) {
+            return null;
+        }
+        String value = header.strip();
+        if (value.equals("*")) {
+            return List.of();
+        }
+        List<EntityTag> tags = new ArrayList<>();
+        Matcher matcher = ENTITY_TAG.matcher(value);
+        int position = 0;
+        while (position < value.length()) {
+            if (!matcher.region(position, value.length()).lookingAt()) {
+                throw new InvalidRequestException("Некорректное значение заголовка " + headerName + ": " + header);
+            }
+            tags.add(new EntityTag(matcher.group(1) != null, matcher.group(2)));
+            position = matcher.end();
+        }
+        return tags;
+    }
+
+    /**
+     * ETag из заголовка запроса.
+     *
+     * @param weak  Слабый ли ETag (W/).
+     * @param value Значение без кавычек.
+     */
+    private record EntityTag(boolean weak, String value) {
+    }
+
+    private ResponseEntity<List<TaskInfoDTO>> sliceResponse(TaskSliceDTO slice) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (slice.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, slice.getNextCursor());
+        }
+        return response.body(slice.getTasks());
     }
 }
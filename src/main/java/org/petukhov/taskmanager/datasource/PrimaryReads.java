@@ -0,0 +1,45 @@
+package org.petukhov.taskmanager.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Признак того, что чтения в текущем потоке должны идти в основную базу,
+ * даже если транзакция только для чтения.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> REQUIRED = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static void require() {
+        REQUIRED.set(Boolean.TRUE);
+    }
+
+    public static boolean isRequired() {
+        return REQUIRED.get() != null;
+    }
+
+    public static void clear() {
+        REQUIRED.remove();
+    }
+
+    /**
+     * Выполнение чтений из основной базы данных.
+     *
+     * @param reads Чтения.
+     * @return Результат чтений.
+     */
+    public static <T> T get(Supplier<T> reads) {
+        if (isRequired()) {
+            return reads.get();
+        }
+        require();
+        try {
+            return reads.get();
+        } finally {
+            clear();
+        }
+    }
+}
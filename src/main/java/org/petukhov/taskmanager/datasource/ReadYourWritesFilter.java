@@ -0,0 +1,73 @@
+package org.petukhov.taskmanager.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Направление чтений клиента в основную базу в течение заданного времени
+ * после его запроса на изменение.
+ * <p>
+ * Запрос с методом, отличным от GET, HEAD и OPTIONS, получает cookie с временем
+ * запроса. Пока cookie не устарела, чтения из запросов с ней выполняются
+ * в основной базе, и клиент видит свои изменения, даже если реплики от нее отстают.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE_NAME = "task-manager-last-write";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        boolean write = !SAFE_METHODS.contains(request.getMethod());
+        if (write) {
+            Cookie cookie = new Cookie(COOKIE_NAME, String.valueOf(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+        }
+        if (!write && !wroteRecently(request, now)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        PrimaryReads.require();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            PrimaryReads.clear();
+        }
+    }
+
+    private boolean wroteRecently(HttpServletRequest request, long now) {
+        if (request.getCookies() == null) {
+            return false;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return now - Long.parseLong(cookie.getValue()) < window.toMillis();
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
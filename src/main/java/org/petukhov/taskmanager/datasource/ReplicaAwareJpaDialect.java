@@ -0,0 +1,34 @@
+package org.petukhov.taskmanager.datasource;
+
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+
+/**
+ * Диалект JPA для чтения с реплик.
+ * <p>
+ * В транзакциях только для чтения, которые выполняются на репликах, сущности и
+ * результаты запросов не записываются в кэш второго уровня Hibernate: реплика
+ * может отставать, и прочитанные с нее устаревшие данные остались бы в кэше
+ * на все время жизни записи. Чтение из кэша при этом не отключается.
+ * <p>
+ * Режим задается для EntityManager транзакции, поэтому открытый на весь запрос
+ * EntityManager (spring.jpa.open-in-view) с репликами не используется.
+ */
+public class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (definition.isReadOnly() && !PrimaryReads.isRequired()) {
+            entityManager.setProperty(AvailableSettings.JAKARTA_SHARED_CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        }
+        return transactionData;
+    }
+}
@@ -0,0 +1,15 @@
+package org.petukhov.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBatchResultDTO {
+    private int index;
+    private Long taskId;
+    private boolean created;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package org.petukhov.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Задачи для массовой операции: либо список ID, либо условия отбора.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBulkRequestDTO {
+    private List<Long> ids;
+    private TaskFilterDTO filter;
+}
@@ -0,0 +1,15 @@
+package org.petukhov.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Результат массовой операции над задачами.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskBulkResultDTO {
+    private long affected;
+}
@@ -0,0 +1,21 @@
+package org.petukhov.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.petukhov.taskmanager.event.TaskChangedEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Изменение задачи в ленте изменений. Позиции изменений возрастают в порядке публикации.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskChangeDTO {
+    private Long position;
+    private Long taskId;
+    private TaskChangedEvent.Type type;
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,23 @@
+package org.petukhov.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия отбора задач. Незаданные условия не применяются.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskFilterDTO {
+    private Boolean completed;
+    @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime dueFrom;
+    @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime dueTo;
+    private Boolean overdue;
+}
@@ -1,5 +1,6 @@
 package org.petukhov.taskmanager.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -21,4 +22,6 @@ public class TaskInfoDTO {
     @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
     private LocalDateTime dueDate;
     private boolean completed;
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,27 @@
+package org.petukhov.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Статус задачи, поставленной в очередь на создание.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskIngestStatusDTO {
+
+    public enum Status {
+        PENDING,
+        CREATED,
+        FAILED
+    }
+
+    private UUID trackingId;
+    private Status status;
+    private Long taskId;
+    private String error;
+}
@@ -0,0 +1,18 @@
+package org.petukhov.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Результат чтения задач по списку ID.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskLookupDTO {
+    private List<TaskInfoDTO> tasks;
+    private List<Long> missingIds;
+}
@@ -0,0 +1,24 @@
+package org.petukhov.taskmanager.dto;
+
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO для частичного обновления задачи: изменяются только переданные поля.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskPatchDTO {
+    @Pattern(regexp = "(?s).*\\S.*", message = "Title cannot be blank")
+    private String title;
+    private String description;
+    @DateTimeFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss")
+    private LocalDateTime dueDate;
+    private Boolean completed;
+}
@@ -0,0 +1,15 @@
+package org.petukhov.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSliceDTO {
+    private List<TaskInfoDTO> tasks;
+    private String nextCursor;
+}
@@ -0,0 +1,24 @@
+package org.petukhov.taskmanager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Сводная статистика по задачам. Невыполненные задачи разбиты по сроку:
+ * просроченные (срок до сегодняшнего дня), на сегодня, на оставшиеся дни
+ * текущей недели, на более поздний срок и без срока.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatsDTO {
+    private long total;
+    private long completed;
+    private long open;
+    private long overdue;
+    private long dueToday;
+    private long dueThisWeek;
+    private long dueLater;
+    private long noDueDate;
+}
@@ -0,0 +1,24 @@
+package org.petukhov.taskmanager.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "tasks_archive")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchivedTask {
+    @Id
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime dueDate;
+    private boolean completed;
+    private long version;
+    private LocalDateTime archivedAt;
+}
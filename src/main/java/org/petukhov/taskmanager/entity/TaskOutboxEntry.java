@@ -0,0 +1,31 @@
+package org.petukhov.taskmanager.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.petukhov.taskmanager.event.TaskChangedEvent;
+
+import java.time.LocalDateTime;
+
+@Entity(name = "task_outbox")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskOutboxEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_outbox_id_seq")
+    @SequenceGenerator(name = "task_outbox_id_seq", sequenceName = "task_outbox_id_seq", allocationSize = 50)
+    private Long id;
+    private Long taskId;
+    @Enumerated(EnumType.STRING)
+    private TaskChangedEvent.Type changeType;
+    private LocalDateTime changedAt;
+    private Long feedPosition;
+}
@@ -0,0 +1,26 @@
+package org.petukhov.taskmanager.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Entity(name = "task_stats")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskStatsEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_stats_id_seq")
+    @SequenceGenerator(name = "task_stats_id_seq", sequenceName = "task_stats_id_seq", allocationSize = 50)
+    private Long id;
+    private LocalDate dueDay;
+    private boolean completed;
+    private long taskCount;
+}
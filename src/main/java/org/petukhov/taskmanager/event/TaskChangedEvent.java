@@ -0,0 +1,38 @@
+package org.petukhov.taskmanager.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие создания, изменения или удаления задачи.
+ * Поля dueDate и completed содержат новые значения, если они известны без
+ * чтения задачи из базы данных, иначе null. Признак dueDateKnown отличает
+ * задачу без срока (dueDate равно null, признак установлен) от неизвестного срока.
+ */
+public record TaskChangedEvent(Long taskId, Type type, LocalDateTime dueDate, Boolean completed,
+                               boolean dueDateKnown) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static TaskChangedEvent created(Long taskId, LocalDateTime dueDate) {
+        return new TaskChangedEvent(taskId, Type.CREATED, dueDate, false, true);
+    }
+
+    /**
+     * Изменение задачи с известными новыми сроком и признаком выполнения.
+     */
+    public static TaskChangedEvent updated(Long taskId, LocalDateTime dueDate, boolean completed) {
+        return new TaskChangedEvent(taskId, Type.UPDATED, dueDate, completed, true);
+    }
+
+    public static TaskChangedEvent completed(Long taskId) {
+        return new TaskChangedEvent(taskId, Type.UPDATED, null, true, false);
+    }
+
+    public static TaskChangedEvent deleted(Long taskId) {
+        return new TaskChangedEvent(taskId, Type.DELETED, null, null, false);
+    }
+}
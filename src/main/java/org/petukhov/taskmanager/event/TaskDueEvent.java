@@ -0,0 +1,9 @@
+package org.petukhov.taskmanager.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Событие наступления срока невыполненной задачи.
+ */
+public record TaskDueEvent(Long taskId, LocalDateTime dueDate) {
+}
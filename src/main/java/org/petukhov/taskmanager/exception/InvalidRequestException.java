@@ -0,0 +1,7 @@
+package org.petukhov.taskmanager.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.petukhov.taskmanager.exception;
+
+public class TaskIngestRejectedException extends RuntimeException {
+    public TaskIngestRejectedException(String message) {
+        super(message);
+    }
+}
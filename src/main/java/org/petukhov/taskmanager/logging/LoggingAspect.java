@@ -1,39 +1,134 @@
 package org.petukhov.taskmanager.logging;
 
-import org.aspectj.lang.JoinPoint;
-import org.aspectj.lang.annotation.AfterReturning;
-import org.aspectj.lang.annotation.AfterThrowing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.aspectj.lang.annotation.Before;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.repository.Repository;
 import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
 
+import java.lang.reflect.Method;
 import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Метрики и журналирование вызовов контроллера, сервиса, хранилища задач и репозиториев.
+ * <p>
+ * Для каждого метода записываются время выполнения (task.manager.calls),
+ * число выполняемых вызовов (task.manager.calls.active) и число ошибок
+ * (task.manager.calls.errors). Метод называется по вызванному бину: для репозиториев
+ * Spring Data — по интерфейсу репозитория, поэтому унаследованные методы
+ * (например, findById) разных репозиториев учитываются раздельно. Для методов
+ * контроллера публикуется гистограмма времени выполнения. Аргументы и результат вызова журналируются только
+ * при включенном уровне DEBUG.
+ */
 @Aspect
 @Component
+@RequiredArgsConstructor
 public class LoggingAspect {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LoggingAspect.class);
 
-    @Before("execution(* org.petukhov.taskmanager.controller.*.*(..))")
-    public void logBefore(JoinPoint joinPoint) {
-        LOGGER.debug("Method called: {}", joinPoint.getSignature().toShortString());
-        LOGGER.debug("Arguments: {}", Arrays.toString(joinPoint.getArgs()));
+    static final String CALLS_METRIC = "task.manager.calls";
+    static final String ACTIVE_CALLS_METRIC = CALLS_METRIC + ".active";
+    static final String ERRORS_METRIC = CALLS_METRIC + ".errors";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<CallKey, CallMetrics> callMetrics = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> activeCalls = new ConcurrentHashMap<>();
+
+    @Around("execution(* org.petukhov.taskmanager.controller.*.*(..))")
+    public Object aroundController(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure(joinPoint, "controller", true);
+    }
+
+    @Around("execution(* org.petukhov.taskmanager.service.impl.TaskServiceImpl.*(..))")
+    public Object aroundService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure(joinPoint, "service", false);
+    }
+
+    @Around("execution(public * org.petukhov.taskmanager.repository.TaskStore+.*(..))")
+    public Object aroundStore(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure(joinPoint, "store", false);
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))"
+            + " || execution(public * org.petukhov.taskmanager.repository.TaskSearchRepository.*(..))")
+    public Object aroundRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return measure(joinPoint, "repository", false);
+    }
+
+    private Object measure(ProceedingJoinPoint joinPoint, String layer, boolean histogram) throws Throwable {
+        CallKey key = new CallKey(callType(joinPoint), ((MethodSignature) joinPoint.getSignature()).getMethod());
+        CallMetrics metrics = callMetrics.computeIfAbsent(key, callKey -> new CallMetrics(layer, callKey, histogram));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("Method called: {}, arguments: {}", metrics.name, Arrays.toString(joinPoint.getArgs()));
+        }
+        metrics.active.incrementAndGet();
+        long start = System.nanoTime();
+        try {
+            Object result = joinPoint.proceed();
+            if (LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Method {} executed successfully, result: {}", metrics.name, result);
+            }
+            return result;
+        } catch (Throwable exception) {
+            meterRegistry.counter(ERRORS_METRIC, metrics.tags.and("exception", exception.getClass().getSimpleName()))
+                    .increment();
+            if (histogram) {
+                LOGGER.error("Error while executing method: {}, exception: {}", metrics.name, exception.getMessage());
+            }
+            throw exception;
+        } finally {
+            metrics.timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            metrics.active.decrementAndGet();
+        }
     }
 
-    @AfterReturning(pointcut = "execution(* org.petukhov.taskmanager.controller.*.*(..))",
-            returning = "result")
-    public void logAfterReturning(JoinPoint joinPoint, Object result) {
-        LOGGER.debug("Method {} executed successfully", joinPoint.getSignature().toShortString());
-        LOGGER.debug("Result: {}", result);
+    /**
+     * Тип, по которому называется вызванный метод: интерфейс репозитория Spring Data
+     * или класс бина.
+     */
+    private static Class<?> callType(ProceedingJoinPoint joinPoint) {
+        if (joinPoint.getThis() instanceof Repository<?, ?>) {
+            for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(joinPoint.getThis().getClass())) {
+                if (Repository.class.isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                    return type;
+                }
+            }
+        }
+        return ClassUtils.getUserClass(joinPoint.getTarget());
     }
 
-    @AfterThrowing(pointcut = "execution(* org.petukhov.taskmanager.controller.*.*(..))",
-            throwing = "exception")
-    public void logAfterThrowing(JoinPoint joinPoint, Throwable exception) {
-        LOGGER.error("Error while executing method: {}", joinPoint.getSignature().toShortString());
-        LOGGER.error("Exception: {}", exception.getMessage());
+    private record CallKey(Class<?> type, Method method) {
+    }
+
+    private final class CallMetrics {
+
+        private final String name;
+        private final Tags tags;
+        private final Timer timer;
+        private final AtomicInteger active;
+
+        private CallMetrics(String layer, CallKey key, boolean histogram) {
+            name = key.type().getSimpleName() + "." + key.method().getName();
+            tags = Tags.of("layer", layer, "method", name);
+            timer = Timer.builder(CALLS_METRIC)
+                    .tags(tags)
+                    .publishPercentileHistogram(histogram)
+                    .register(meterRegistry);
+            active = activeCalls.computeIfAbsent(layer + ":" + name,
+                    activeKey -> meterRegistry.gauge(ACTIVE_CALLS_METRIC, tags, new AtomicInteger()));
+        }
     }
 }
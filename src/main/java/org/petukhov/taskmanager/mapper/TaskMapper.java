@@ -3,14 +3,25 @@ package org.petukhov.taskmanager.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskChangeDTO;
 import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.entity.ArchivedTask;
 import org.petukhov.taskmanager.entity.Task;
+import org.petukhov.taskmanager.entity.TaskOutboxEntry;
 
 @Mapper(componentModel = "spring")
 public interface TaskMapper {
     CreateTaskDTO toCreateTaskDTO(Task task);
 
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "completed", ignore = true)
+    @Mapping(target = "version", ignore = true)
     Task toEntityTask(CreateTaskDTO createTaskDTO);
     @Mapping(source = "id", target = "taskId")
     TaskInfoDTO toTaskInfoDTO(Task task);
+    @Mapping(source = "id", target = "taskId")
+    TaskInfoDTO toTaskInfoDTO(ArchivedTask archivedTask);
+    @Mapping(source = "feedPosition", target = "position")
+    @Mapping(source = "changeType", target = "type")
+    TaskChangeDTO toTaskChangeDTO(TaskOutboxEntry entry);
 }
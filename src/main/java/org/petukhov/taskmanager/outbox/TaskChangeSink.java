@@ -0,0 +1,14 @@
+package org.petukhov.taskmanager.outbox;
+
+import org.petukhov.taskmanager.dto.TaskChangeDTO;
+
+import java.util.List;
+
+/**
+ * Получатель опубликованных изменений задач. Изменения передаются пакетами
+ * в порядке возрастания позиции, каждое изменение - не менее одного раза.
+ */
+public interface TaskChangeSink {
+
+    void publish(List<TaskChangeDTO> changes);
+}
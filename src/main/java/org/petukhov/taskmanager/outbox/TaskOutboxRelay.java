@@ -0,0 +1,89 @@
+package org.petukhov.taskmanager.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.petukhov.taskmanager.config.TaskOutboxProperties;
+import org.petukhov.taskmanager.dto.TaskChangeDTO;
+import org.petukhov.taskmanager.entity.TaskOutboxEntry;
+import org.petukhov.taskmanager.mapper.TaskMapper;
+import org.petukhov.taskmanager.repository.TaskOutboxRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Публикация изменений задач из таблицы task_outbox.
+ * <p>
+ * Неопубликованные изменения читаются пакетами в порядке записи, получают
+ * возрастающую позицию в ленте и передаются всем {@link TaskChangeSink}.
+ * Позиция назначается при публикации, а не при записи, поэтому изменение из
+ * транзакции, зафиксированной позже, не окажется в ленте перед уже прочитанными.
+ * Предполагается один экземпляр приложения, публикующий изменения.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TaskOutboxRelay {
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final TaskMapper taskMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskOutboxProperties properties;
+    private final List<TaskChangeSink> sinks;
+
+    /**
+     * Последняя назначенная позиция. Изменяется только потоком публикации.
+     */
+    private Long lastPosition;
+
+    @Scheduled(fixedDelayString = "#{@taskOutboxProperties.relayInterval.toMillis()}")
+    public void relay() {
+        List<TaskChangeDTO> changes;
+        do {
+            changes = transactionTemplate.execute(status -> assignPositions());
+            if (!changes.isEmpty()) {
+                lastPosition = changes.get(changes.size() - 1).getPosition();
+                publish(changes);
+            }
+        } while (changes.size() == properties.getBatchSize());
+    }
+
+    private List<TaskChangeDTO> assignPositions() {
+        List<TaskOutboxEntry> entries = taskOutboxRepository.findByFeedPositionIsNullOrderByIdAsc(
+                PageRequest.of(0, properties.getBatchSize()));
+        long position = lastPosition != null ? lastPosition : taskOutboxRepository.findMaxFeedPosition().orElse(0L);
+        List<TaskChangeDTO> changes = new ArrayList<>(entries.size());
+        for (TaskOutboxEntry entry : entries) {
+            entry.setFeedPosition(++position);
+            changes.add(taskMapper.toTaskChangeDTO(entry));
+        }
+        return changes;
+    }
+
+    private void publish(List<TaskChangeDTO> changes) {
+        for (TaskChangeSink sink : sinks) {
+            try {
+                sink.publish(changes);
+            } catch (RuntimeException e) {
+                log.error("Не удалось передать {} изменений задач получателю {}: {}",
+                        changes.size(), sink.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Удаление опубликованных изменений старше task-manager.outbox.retention.
+     */
+    @Scheduled(fixedDelayString = "#{@taskOutboxProperties.purgeInterval.toMillis()}")
+    public void purge() {
+        int deleted = taskOutboxRepository.deletePublishedBefore(LocalDateTime.now().minus(properties.getRetention()));
+        if (deleted > 0) {
+            log.info("Удалено устаревших изменений задач: {}", deleted);
+        }
+    }
+}
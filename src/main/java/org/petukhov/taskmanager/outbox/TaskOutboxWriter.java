@@ -0,0 +1,27 @@
+package org.petukhov.taskmanager.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.petukhov.taskmanager.entity.TaskOutboxEntry;
+import org.petukhov.taskmanager.event.TaskChangedEvent;
+import org.petukhov.taskmanager.repository.TaskOutboxRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Запись изменений задач в таблицу task_outbox в той же транзакции, в которой
+ * изменена задача. Если транзакция откатывается, изменение не записывается.
+ */
+@Component
+@RequiredArgsConstructor
+public class TaskOutboxWriter {
+
+    private final TaskOutboxRepository taskOutboxRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onTaskChanged(TaskChangedEvent event) {
+        taskOutboxRepository.save(new TaskOutboxEntry(null, event.taskId(), event.type(), LocalDateTime.now(), null));
+    }
+}
@@ -0,0 +1,20 @@
+package org.petukhov.taskmanager.reminder;
+
+import lombok.extern.slf4j.Slf4j;
+import org.petukhov.taskmanager.event.TaskDueEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Запись напоминаний о наступлении срока задач в лог.
+ * Другие получатели напоминаний подписываются на {@link TaskDueEvent} так же.
+ */
+@Slf4j
+@Component
+public class TaskDueLogListener {
+
+    @EventListener
+    public void onTaskDue(TaskDueEvent event) {
+        log.info("Наступил срок задачи с ID {}: {}", event.taskId(), event.dueDate());
+    }
+}
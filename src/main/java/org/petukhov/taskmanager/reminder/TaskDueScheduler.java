@@ -0,0 +1,389 @@
+package org.petukhov.taskmanager.reminder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.petukhov.taskmanager.config.TaskBatchProperties;
+import org.petukhov.taskmanager.config.TaskReminderProperties;
+import org.petukhov.taskmanager.event.TaskChangedEvent;
+import org.petukhov.taskmanager.event.TaskDueEvent;
+import org.petukhov.taskmanager.repository.TaskDueDate;
+import org.petukhov.taskmanager.repository.TaskRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Напоминания о наступлении срока задач.
+ * <p>
+ * Невыполненные задачи со сроком в пределах окна task-manager.reminders.window
+ * загружаются запросом по диапазону due_date (индекс idx_tasks_open_due_date) и
+ * хранятся в памяти упорядоченными по сроку. Фоновый поток ждет ближайшего срока
+ * и публикует {@link TaskDueEvent}. Создание, изменение и удаление задач
+ * обновляют очередь по {@link TaskChangedEvent} за O(log n), без повторного
+ * чтения всей таблицы. Задачи, срок которых наступил до запуска приложения,
+ * не напоминаются.
+ */
+@Slf4j
+@Component
+public class TaskDueScheduler implements SmartLifecycle {
+
+    static final String SCHEDULED_METRIC = "task.manager.reminders.scheduled";
+    static final String FIRED_METRIC = "task.manager.reminders.fired";
+
+    /**
+     * Напоминания запускаются до веб-сервера, чтобы не пропустить изменения задач.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final long MAX_WAIT_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final TaskRepository taskRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TaskReminderProperties properties;
+    private final TaskBatchProperties batchProperties;
+    private final Counter firedCounter;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final NavigableSet<TaskDueDate> queue = new TreeSet<>(
+            Comparator.comparing(TaskDueDate::dueDate).thenComparing(TaskDueDate::taskId));
+    private final Map<Long, LocalDateTime> dueDates = new HashMap<>();
+    /**
+     * Задачи со сроком не позже этого момента загружены в очередь или будут
+     * загружены текущей загрузкой окна. Изменения задач с более поздним сроком
+     * в очередь не попадают, их подхватит загрузка следующего окна.
+     */
+    private LocalDateTime horizon;
+    /**
+     * Позиция загрузки в порядке (due_date, id): задачи со сроком раньше loadedUntil
+     * и задачи со сроком loadedUntil и ID не больше loadedAfterId загружены
+     * из базы данных. Используется только фоновым потоком.
+     */
+    private LocalDateTime loadedUntil;
+    private Long loadedAfterId;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public TaskDueScheduler(TaskRepository taskRepository, ApplicationEventPublisher eventPublisher,
+                            TaskReminderProperties properties, TaskBatchProperties batchProperties,
+                            MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.eventPublisher = eventPublisher;
+        this.properties = properties;
+        this.batchProperties = batchProperties;
+        this.firedCounter = meterRegistry.counter(FIRED_METRIC);
+        meterRegistry.gauge(SCHEDULED_METRIC, dueDates, Map::size);
+    }
+
+    /**
+     * Обновление очереди после изменения задачи.
+     * Если новый срок задачи неизвестен из события, он читается по ID.
+     * Задача без срока удаляется из очереди без чтения.
+     *
+     * @param event Событие изменения задачи.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTaskChanged(TaskChangedEvent event) {
+        if (!running) {
+            return;
+        }
+        if (event.type() == TaskChangedEvent.Type.DELETED || Boolean.TRUE.equals(event.completed())) {
+            unschedule(event.taskId());
+        } else if (event.dueDateKnown()) {
+            if (event.dueDate() == null) {
+                unschedule(event.taskId());
+            } else {
+                schedule(event.taskId(), event.dueDate());
+            }
+        } else if (event.completed() != null) {
+            try {
+                Optional<LocalDateTime> dueDate = taskRepository.findOpenDueDateById(event.taskId());
+                if (dueDate.isPresent()) {
+                    schedule(event.taskId(), dueDate.get());
+                } else {
+                    unschedule(event.taskId());
+                }
+            } catch (DataAccessException e) {
+                log.warn("Не удалось обновить напоминание для задачи с ID {}: {}", event.taskId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Количество задач, ожидающих наступления срока.
+     */
+    int scheduledCount() {
+        lock.lock();
+        try {
+            return dueDates.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void schedule(Long taskId, LocalDateTime dueDate) {
+        lock.lock();
+        try {
+            removeEntry(taskId);
+            if (dueDate.isAfter(horizon)) {
+                return;
+            }
+            TaskDueDate entry = new TaskDueDate(taskId, dueDate);
+            queue.add(entry);
+            dueDates.put(taskId, dueDate);
+            if (queue.first() == entry) {
+                changed.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void unschedule(Long taskId) {
+        lock.lock();
+        try {
+            removeEntry(taskId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeEntry(Long taskId) {
+        LocalDateTime previous = dueDates.remove(taskId);
+        if (previous != null) {
+            queue.remove(new TaskDueDate(taskId, previous));
+        }
+    }
+
+    @Override
+    public void start() {
+        LocalDateTime now = LocalDateTime.now();
+        lock.lock();
+        try {
+            loadedUntil = now;
+            loadedAfterId = 0L;
+            horizon = now.plus(properties.getWindow());
+        } finally {
+            lock.unlock();
+        }
+        running = true;
+        worker = new Thread(this::run, "task-due-scheduler");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        lock.lock();
+        try {
+            queue.clear();
+            dueDates.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                extendHorizon();
+                if (loadedUntil.isBefore(currentHorizon())) {
+                    loadUntilHorizon();
+                }
+                TaskDueDate due = nextDue();
+                if (due != null) {
+                    fire(due);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Ошибка при обработке напоминаний о сроках задач: {}", e.getMessage());
+                sleepAfterError();
+            }
+        }
+    }
+
+    private LocalDateTime currentHorizon() {
+        lock.lock();
+        try {
+            return horizon;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Сдвиг горизонта на окно вперед, когда до него остается меньше половины окна.
+     * С этого момента изменения задач в новом окне сразу попадают в очередь.
+     */
+    private void extendHorizon() {
+        LocalDateTime now = LocalDateTime.now();
+        lock.lock();
+        try {
+            if (canExtendHorizon() && !now.isBefore(nextExtension())) {
+                horizon = now.plus(properties.getWindow());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * После сокращения окна горизонт не сдвигается, пока очередь не опустеет
+     * хотя бы наполовину, чтобы не перечитывать одни и те же задачи.
+     */
+    private boolean canExtendHorizon() {
+        return dueDates.size() * 2L < properties.getMaxScheduled();
+    }
+
+    private LocalDateTime nextExtension() {
+        return horizon.minus(properties.getWindow().dividedBy(2));
+    }
+
+    /**
+     * Загрузка невыполненных задач со сроком от позиции загрузки до горизонта
+     * порциями по chunk-size в порядке срока. Если задач больше, чем
+     * max-scheduled, горизонт сдвигается назад до срока последней загруженной задачи,
+     * а следующая загрузка продолжается после нее, чтобы не загрузить повторно
+     * задачи с тем же сроком, напоминания о которых уже опубликованы.
+     */
+    private void loadUntilHorizon() {
+        LocalDateTime dueBefore = currentHorizon();
+        LocalDateTime afterDueDate = loadedUntil;
+        Long afterId = loadedAfterId;
+        PageRequest chunk = PageRequest.of(0, batchProperties.getChunkSize());
+        while (running) {
+            List<TaskDueDate> loaded = taskRepository.findOpenDueDates(afterDueDate, afterId, dueBefore, chunk);
+            lock.lock();
+            try {
+                for (TaskDueDate entry : loaded) {
+                    if (!dueDates.containsKey(entry.taskId()) && !entry.dueDate().isAfter(horizon)) {
+                        queue.add(entry);
+                        dueDates.put(entry.taskId(), entry.dueDate());
+                    }
+                }
+                if (!loaded.isEmpty() && dueDates.size() >= properties.getMaxScheduled()) {
+                    TaskDueDate last = loaded.get(loaded.size() - 1);
+                    shrinkHorizon(last.dueDate());
+                    loadedUntil = last.dueDate();
+                    loadedAfterId = last.taskId();
+                    return;
+                }
+                changed.signal();
+            } finally {
+                lock.unlock();
+            }
+            if (loaded.size() < chunk.getPageSize()) {
+                loadedUntil = dueBefore;
+                loadedAfterId = 0L;
+                return;
+            }
+            TaskDueDate last = loaded.get(loaded.size() - 1);
+            afterDueDate = last.dueDate();
+            afterId = last.taskId();
+        }
+    }
+
+    private void shrinkHorizon(LocalDateTime lastDueDate) {
+        horizon = lastDueDate;
+        while (!queue.isEmpty() && queue.last().dueDate().isAfter(horizon)) {
+            dueDates.remove(queue.pollLast().taskId());
+        }
+        log.warn("В окно напоминаний попало больше {} задач, окно сокращено до {}",
+                properties.getMaxScheduled(), horizon);
+        changed.signal();
+    }
+
+    /**
+     * Ожидание ближайшего срока. Ожидание прерывается при добавлении задачи с более
+     * ранним сроком и не длится дольше, чем до следующей загрузки окна.
+     *
+     * @return Задача, срок которой наступил, или null, если ожидание прервано.
+     */
+    private TaskDueDate nextDue() throws InterruptedException {
+        lock.lock();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            TaskDueDate first = queue.isEmpty() ? null : queue.first();
+            if (first != null && !first.dueDate().isAfter(now)) {
+                queue.pollFirst();
+                dueDates.remove(first.taskId());
+                return first;
+            }
+            LocalDateTime wakeUp = canExtendHorizon() || first == null ? nextExtension() : first.dueDate();
+            if (first != null && first.dueDate().isBefore(wakeUp)) {
+                wakeUp = first.dueDate();
+            }
+            long waitNanos = Math.min(Duration.between(now, wakeUp).toNanos(), MAX_WAIT_NANOS);
+            if (waitNanos > 0) {
+                changed.awaitNanos(waitNanos);
+            }
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Публикация напоминания, если задача по-прежнему не выполнена и ее срок
+     * не перенесен. Проверка защищает от изменений, сделанных в обход
+     * приложения или во время загрузки окна.
+     */
+    private void fire(TaskDueDate due) {
+        Optional<LocalDateTime> dueDate = taskRepository.findOpenDueDateById(due.taskId());
+        if (dueDate.isEmpty() || dueDate.get().isAfter(LocalDateTime.now())) {
+            return;
+        }
+        eventPublisher.publishEvent(new TaskDueEvent(due.taskId(), dueDate.get()));
+        firedCounter.increment();
+    }
+
+    private void sleepAfterError() {
+        try {
+            TimeUnit.SECONDS.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
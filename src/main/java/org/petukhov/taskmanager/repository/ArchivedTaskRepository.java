@@ -0,0 +1,27 @@
+package org.petukhov.taskmanager.repository;
+
+import org.petukhov.taskmanager.entity.ArchivedTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedTaskRepository extends JpaRepository<ArchivedTask, Long> {
+
+    @Query("select t.version from tasks_archive t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO tasks_archive (id, title, description, due_date, completed, version, archived_at) " +
+            "SELECT id, title, description, due_date, completed, version, :archivedAt FROM tasks WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyFromTasks(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+}
@@ -0,0 +1,159 @@
+package org.petukhov.taskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.petukhov.taskmanager.entity.Task;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Хранилище задач в основной базе данных.
+ * Запросы выполняются в текущей транзакции JPA, вместе с записью статистики и outbox.
+ */
+@Repository
+@RequiredArgsConstructor
+public class JpaTaskStore implements TaskStore {
+
+    private final TaskRepository taskRepository;
+    private final TaskSearchRepository taskSearchRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public Task save(Task task) {
+        return taskRepository.save(task);
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        return taskRepository.saveAll(tasks);
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return taskRepository.findById(id);
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return taskRepository.existsById(id);
+    }
+
+    @Override
+    public Optional<Long> findVersionById(Long id) {
+        return taskRepository.findVersionById(id);
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<Long> ids) {
+        return taskRepository.findAllById(ids);
+    }
+
+    @Override
+    public List<Task> findPage(TaskFilterDTO filter, int pageNumber, int pageSize) {
+        PageRequest pageRequest = PageRequest.of(pageNumber - 1, pageSize, Sort.by("id"));
+        Slice<Task> tasks = TaskSpecifications.hasCriteria(filter)
+                ? taskRepository.findSlice(TaskSpecifications.matching(filter, LocalDateTime.now()), pageRequest,
+                        !TaskSpecifications.isTimeDependent(filter))
+                : taskRepository.findAllBy(pageRequest);
+        return tasks.getContent();
+    }
+
+    @Override
+    public Slice<Task> findAfter(TaskFilterDTO filter, Long afterId, int pageSize) {
+        Long fromId = afterId == null ? 0L : afterId;
+        return TaskSpecifications.hasCriteria(filter)
+                ? taskRepository.findSlice(TaskSpecifications.matching(filter, LocalDateTime.now())
+                        .and(TaskSpecifications.idGreaterThan(fromId)), PageRequest.of(0, pageSize, Sort.by("id")),
+                        !TaskSpecifications.isTimeDependent(filter))
+                : taskRepository.findByIdGreaterThanOrderByIdAsc(fromId, PageRequest.of(0, pageSize));
+    }
+
+    @Override
+    public List<TaskSearchHit> search(String query, Float afterRank, Long afterId, int limit) {
+        return taskSearchRepository.search(query, afterRank, afterId, limit);
+    }
+
+    /**
+     * Чтение задач потоком порциями по размеру выборки JDBC. Задачи отсоединяются
+     * от контекста после обработки, поэтому расход памяти не зависит от их числа.
+     * Вызывается в транзакции.
+     */
+    @Override
+    public void forEach(Consumer<Task> consumer) {
+        try (Stream<Task> tasks = taskRepository.streamAllByOrderByIdAsc()) {
+            tasks.forEach(task -> {
+                consumer.accept(task);
+                entityManager.detach(task);
+            });
+        }
+    }
+
+    @Override
+    public Optional<TaskMutation> updateTask(Long id, Long expectedVersion, String title, String description,
+                                             LocalDateTime dueDate, boolean completed) {
+        return taskRepository.updateTask(id, expectedVersion, title, description, dueDate, completed);
+    }
+
+    @Override
+    public Optional<TaskMutation> updateFields(Long id, Long expectedVersion, Map<String, Object> fields) {
+        return taskRepository.updateFields(id, expectedVersion, fields);
+    }
+
+    @Override
+    public Optional<TaskMutation> completeTask(Long id) {
+        return taskRepository.completeTask(id);
+    }
+
+    @Override
+    public Optional<TaskMutation> deleteTaskById(Long id) {
+        return taskRepository.deleteTaskById(id);
+    }
+
+    @Override
+    public TaskChunk completeChunk(TaskChunkQuery query) {
+        return applyToChunk(specification(query).and(TaskSpecifications.completed(false)), query.limit(),
+                taskRepository::completeTasksByIds);
+    }
+
+    @Override
+    public TaskChunk deleteChunk(TaskChunkQuery query) {
+        return applyToChunk(specification(query), query.limit(), taskRepository::deleteTasksByIds);
+    }
+
+    @Override
+    public List<TaskStatsCount> countByDueDayAndCompleted() {
+        return taskRepository.countByDueDayAndCompleted();
+    }
+
+    private TaskChunk applyToChunk(Specification<Task> specification, int limit,
+                                   Function<List<Long>, List<TaskMutation>> statement) {
+        List<Long> ids = taskRepository.findIds(specification, limit);
+        return new TaskChunk(ids, ids.isEmpty() ? List.of() : statement.apply(ids));
+    }
+
+    private static Specification<Task> specification(TaskChunkQuery query) {
+        Specification<Task> specification = query.filter() == null
+                ? Specification.where(null)
+                : TaskSpecifications.matching(query.filter(), query.now());
+        if (query.afterId() != null) {
+            specification = specification.and(TaskSpecifications.idGreaterThan(query.afterId()));
+        }
+        if (query.ids() != null) {
+            specification = specification.and(TaskSpecifications.idIn(query.ids()));
+        }
+        return specification;
+    }
+}
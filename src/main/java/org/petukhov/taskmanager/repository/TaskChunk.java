@@ -0,0 +1,12 @@
+package org.petukhov.taskmanager.repository;
+
+import java.util.List;
+
+/**
+ * Результат массовой операции над порцией задач.
+ *
+ * @param ids       ID отобранных задач в порядке возрастания.
+ * @param mutations Прежнее состояние и новая версия задач, которые затронула операция.
+ */
+public record TaskChunk(List<Long> ids, List<TaskMutation> mutations) {
+}
@@ -0,0 +1,27 @@
+package org.petukhov.taskmanager.repository;
+
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Отбор порции задач для массовой операции: первые limit задач в порядке ID,
+ * удовлетворяющих всем заданным условиям.
+ *
+ * @param filter  Условия отбора задач или null.
+ * @param now     Текущий момент для условия просроченности.
+ * @param afterId ID, после которого отбираются задачи, или null.
+ * @param ids     ID, среди которых отбираются задачи, или null.
+ * @param limit   Максимальное количество задач.
+ */
+public record TaskChunkQuery(TaskFilterDTO filter, LocalDateTime now, Long afterId, List<Long> ids, int limit) {
+
+    public static TaskChunkQuery byIds(List<Long> ids) {
+        return new TaskChunkQuery(null, null, null, ids, ids.size());
+    }
+
+    public static TaskChunkQuery byFilter(TaskFilterDTO filter, LocalDateTime now, Long afterId, int limit) {
+        return new TaskChunkQuery(filter, now, afterId, null, limit);
+    }
+}
@@ -0,0 +1,9 @@
+package org.petukhov.taskmanager.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * ID невыполненной задачи и ее срок.
+ */
+public record TaskDueDate(Long taskId, LocalDateTime dueDate) {
+}
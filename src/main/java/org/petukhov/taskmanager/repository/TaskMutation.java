@@ -0,0 +1,11 @@
+package org.petukhov.taskmanager.repository;
+
+/**
+ * Результат изменения задачи запросом, возвращающим прежнее состояние строки.
+ *
+ * @param id      ID задачи.
+ * @param before  Поля задачи для статистики до изменения.
+ * @param version Версия задачи после изменения; для удаленной задачи - последняя версия.
+ */
+public record TaskMutation(Long id, TaskStatsKey before, long version) {
+}
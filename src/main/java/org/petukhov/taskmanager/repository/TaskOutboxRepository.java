@@ -0,0 +1,30 @@
+package org.petukhov.taskmanager.repository;
+
+import org.petukhov.taskmanager.entity.TaskOutboxEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TaskOutboxRepository extends JpaRepository<TaskOutboxEntry, Long> {
+
+    List<TaskOutboxEntry> findByFeedPositionIsNullOrderByIdAsc(Pageable pageable);
+
+    List<TaskOutboxEntry> findByFeedPositionGreaterThanOrderByFeedPositionAsc(Long feedPosition, Pageable pageable);
+
+    @Query("select max(e.feedPosition) from task_outbox e")
+    Optional<Long> findMaxFeedPosition();
+
+    @Transactional
+    @Modifying
+    @Query("delete from task_outbox e where e.feedPosition is not null and e.changedAt < :before")
+    int deletePublishedBefore(@Param("before") LocalDateTime before);
+}
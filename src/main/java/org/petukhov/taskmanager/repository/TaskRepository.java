@@ -1,7 +1,68 @@
 package org.petukhov.taskmanager.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.petukhov.taskmanager.config.HibernateCacheConfig;
 import org.petukhov.taskmanager.entity.Task;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface TaskRepository extends JpaRepository<Task, Long> {
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface TaskRepository extends JpaRepository<Task, Long>, TaskRepositoryCustom {
+
+    String STREAM_FETCH_SIZE = "1000";
+
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.TASK_QUERY_REGION)
+    })
+    List<Task> findAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.TASK_QUERY_REGION)
+    })
+    Slice<Task> findAllBy(Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = HibernateCacheConfig.TASK_QUERY_REGION)
+    })
+    Slice<Task> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_MODE, value = "IGNORE")
+    })
+    @Query("select t from tasks t order by t.id")
+    Stream<Task> streamAllByOrderByIdAsc();
+
+    @Query("select new org.petukhov.taskmanager.repository.TaskDueDate(t.id, t.dueDate) from tasks t " +
+            "where t.completed = false and t.dueDate < :dueBefore " +
+            "and (t.dueDate > :afterDueDate or (t.dueDate = :afterDueDate and t.id > :afterId)) " +
+            "order by t.dueDate, t.id")
+    List<TaskDueDate> findOpenDueDates(@Param("afterDueDate") LocalDateTime afterDueDate,
+                                       @Param("afterId") Long afterId,
+                                       @Param("dueBefore") LocalDateTime dueBefore,
+                                       Pageable pageable);
+
+    @Query("select t.dueDate from tasks t where t.id = :id and t.completed = false")
+    Optional<LocalDateTime> findOpenDueDateById(@Param("id") Long id);
+
+    @Query("select t.version from tasks t where t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select new org.petukhov.taskmanager.repository.TaskStatsCount(cast(t.dueDate as LocalDate), t.completed, count(t)) " +
+            "from tasks t group by cast(t.dueDate as LocalDate), t.completed")
+    List<TaskStatsCount> countByDueDayAndCompleted();
 }
@@ -0,0 +1,94 @@
+package org.petukhov.taskmanager.repository;
+
+import org.petukhov.taskmanager.entity.Task;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface TaskRepositoryCustom {
+
+    /**
+     * Выборка задач по спецификации без подсчета общего количества.
+     *
+     * @param specification Условия отбора задач.
+     * @param pageable      Смещение, размер и сортировка выборки.
+     * @param cacheable     Кэшировать ли результат в кэше запросов. Результаты запросов,
+     *                      зависящих от текущего момента, кэшировать бессмысленно.
+     * @return Порция задач с признаком наличия следующей порции.
+     */
+    Slice<Task> findSlice(Specification<Task> specification, Pageable pageable, boolean cacheable);
+
+    /**
+     * Выборка ID задач по спецификации в порядке возрастания ID.
+     *
+     * @param specification Условия отбора задач.
+     * @param limit         Максимальное количество ID.
+     * @return ID задач.
+     */
+    List<Long> findIds(Specification<Task> specification, int limit);
+
+    /**
+     * Выборка ID задач по спецификации с блокировкой строк до конца транзакции.
+     * Отобранные задачи удовлетворяют условиям и не могут быть изменены другими
+     * транзакциями, пока текущая не завершится.
+     *
+     * @param specification Условия отбора задач.
+     * @param limit         Максимальное количество ID.
+     * @return ID заблокированных задач в порядке возрастания.
+     */
+    List<Long> findIdsForUpdate(Specification<Task> specification, int limit);
+
+    /**
+     * Обновление только указанных полей задачи одним запросом.
+     * Версия задачи увеличивается на единицу.
+     *
+     * @param id      ID задачи.
+     * @param version Ожидаемая версия задачи или null, если версия не проверяется.
+     * @param fields  Новые значения полей по именам атрибутов сущности.
+     * @return Прежнее состояние и новая версия задачи; пусто, если задача не изменена.
+     */
+    Optional<TaskMutation> updateFields(Long id, Long version, Map<String, Object> fields);
+
+    /**
+     * Замена всех полей задачи одним запросом. Версия задачи увеличивается на единицу.
+     *
+     * @param version Ожидаемая версия задачи или null, если версия не проверяется.
+     * @return Прежнее состояние и новая версия задачи; пусто, если задача не изменена.
+     */
+    Optional<TaskMutation> updateTask(Long id, Long version, String title, String description,
+                                      LocalDateTime dueDate, boolean completed);
+
+    /**
+     * Отметка задачи выполненной.
+     *
+     * @return Прежнее состояние и новая версия задачи; пусто, если задача не найдена.
+     */
+    Optional<TaskMutation> completeTask(Long id);
+
+    /**
+     * Отметка выполненными невыполненных задач из списка.
+     *
+     * @return Прежнее состояние и новая версия каждой выполненной задачи.
+     */
+    List<TaskMutation> completeTasksByIds(Collection<Long> ids);
+
+    /**
+     * Удаление задачи.
+     *
+     * @return Состояние удаленной задачи; пусто, если задача не найдена.
+     */
+    Optional<TaskMutation> deleteTaskById(Long id);
+
+    /**
+     * Удаление задач из списка.
+     *
+     * @return Состояние каждой удаленной задачи.
+     */
+    List<TaskMutation> deleteTasksByIds(Collection<Long> ids);
+}
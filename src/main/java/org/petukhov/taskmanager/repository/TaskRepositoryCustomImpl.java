@@ -0,0 +1,168 @@
+package org.petukhov.taskmanager.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.jpa.HibernateHints;
+import org.petukhov.taskmanager.config.HibernateCacheConfig;
+import org.petukhov.taskmanager.entity.Task;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Запросы к задачам, которые не выражаются методами Spring Data.
+ * <p>
+ * Изменения выполняются через JDBC, а не массовыми запросами HQL: Hibernate
+ * после каждого массового запроса очищает всю область задач в кэше второго
+ * уровня. Здесь из кэша вытесняются только измененные задачи, а результаты
+ * запросов списка задач устаревают по метке обновления таблицы tasks так же,
+ * как при изменении через Hibernate.
+ */
+public class TaskRepositoryCustomImpl implements TaskRepositoryCustom {
+
+    private static final String[] TASK_SPACES = {"tasks"};
+
+    private final EntityManager entityManager;
+    private final TaskStatements statements;
+
+    public TaskRepositoryCustomImpl(EntityManager entityManager, NamedParameterJdbcTemplate jdbcTemplate) {
+        this.entityManager = entityManager;
+        this.statements = new TaskStatements(jdbcTemplate);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Task> findSlice(Specification<Task> specification, Pageable pageable, boolean cacheable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = criteriaBuilder.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        TypedQuery<Task> typedQuery = entityManager.createQuery(query)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1);
+        if (cacheable) {
+            typedQuery.setHint(HibernateHints.HINT_CACHEABLE, true)
+                    .setHint(HibernateHints.HINT_CACHE_REGION, HibernateCacheConfig.TASK_QUERY_REGION);
+        }
+        List<Task> tasks = typedQuery.getResultList();
+        boolean hasNext = tasks.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? tasks.subList(0, pageable.getPageSize()) : tasks, pageable, hasNext);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Long> findIds(Specification<Task> specification, int limit) {
+        return findIds(specification, limit, LockModeType.NONE);
+    }
+
+    @Override
+    @Transactional
+    public List<Long> findIdsForUpdate(Specification<Task> specification, int limit) {
+        return findIds(specification, limit, LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    private List<Long> findIds(Specification<Task> specification, int limit, LockModeType lockMode) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<Task> root = query.from(Task.class);
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id")).orderBy(criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setLockMode(lockMode)
+                .getResultList();
+    }
+
+    @Override
+    @Transactional
+    public Optional<TaskMutation> updateFields(Long id, Long version, Map<String, Object> fields) {
+        return evict(statements.updateFields(id, version, fields));
+    }
+
+    @Override
+    @Transactional
+    public Optional<TaskMutation> updateTask(Long id, Long version, String title, String description,
+                                             LocalDateTime dueDate, boolean completed) {
+        return evict(statements.updateTask(id, version, title, description, dueDate, completed));
+    }
+
+    @Override
+    @Transactional
+    public Optional<TaskMutation> completeTask(Long id) {
+        return evict(statements.completeTask(id));
+    }
+
+    @Override
+    @Transactional
+    public List<TaskMutation> completeTasksByIds(Collection<Long> ids) {
+        return evict(statements.completeTasksByIds(ids));
+    }
+
+    @Override
+    @Transactional
+    public Optional<TaskMutation> deleteTaskById(Long id) {
+        return evict(statements.deleteTaskById(id));
+    }
+
+    @Override
+    @Transactional
+    public List<TaskMutation> deleteTasksByIds(Collection<Long> ids) {
+        return evict(statements.deleteTasksByIds(ids));
+    }
+
+    private Optional<TaskMutation> evict(Optional<TaskMutation> mutation) {
+        mutation.ifPresent(changed -> evict(List.of(changed)));
+        return mutation;
+    }
+
+    /**
+     * Вытеснение измененных задач из кэша второго уровня.
+     * Вытеснение повторяется после завершения транзакции, чтобы в кэше не
+     * осталась задача, прочитанная другим запросом до фиксации изменения.
+     *
+     * @param mutations Измененные задачи.
+     * @return Измененные задачи.
+     */
+    private List<TaskMutation> evict(List<TaskMutation> mutations) {
+        if (mutations.isEmpty()) {
+            return mutations;
+        }
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        CacheImplementor cache = session.getFactory().getCache();
+        List<Long> ids = mutations.stream().map(TaskMutation::id).toList();
+        cache.getTimestampsCache().preInvalidate(TASK_SPACES, session);
+        ids.forEach(id -> cache.evictEntityData(Task.class, id));
+        session.getActionQueue().registerProcess((success, completedSession) -> {
+            ids.forEach(id -> cache.evictEntityData(Task.class, id));
+            cache.getTimestampsCache().invalidate(TASK_SPACES, completedSession);
+        });
+        return mutations;
+    }
+}
@@ -0,0 +1,9 @@
+package org.petukhov.taskmanager.repository;
+
+import org.petukhov.taskmanager.entity.Task;
+
+/**
+ * Задача, найденная полнотекстовым поиском, и ее релевантность.
+ */
+public record TaskSearchHit(Task task, float rank) {
+}
@@ -0,0 +1,94 @@
+package org.petukhov.taskmanager.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.petukhov.taskmanager.entity.Task;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Полнотекстовый поиск задач по названию и описанию.
+ * <p>
+ * В PostgreSQL используется столбец search_vector с GIN-индексом, результаты
+ * упорядочены по релевантности. В остальных базах данных (H2 в тестах) поиск
+ * выполняется по подстроке, а релевантность всех результатов равна нулю.
+ * Постраничное чтение выполняется по ключу (релевантность, ID).
+ */
+@Repository
+@RequiredArgsConstructor
+public class TaskSearchRepository {
+
+    private static final String FULL_TEXT_HITS = """
+            SELECT t.id, t.title, t.description, t.due_date, t.completed,
+                   ts_rank(t.search_vector, plainto_tsquery('simple', :query)) AS relevance
+            FROM tasks t
+            WHERE t.search_vector @@ plainto_tsquery('simple', :query)
+            """;
+
+    private static final String SUBSTRING_HITS = """
+            SELECT t.id, t.title, t.description, t.due_date, t.completed, CAST(0 AS REAL) AS relevance
+            FROM tasks t
+            WHERE LOWER(t.title) LIKE :pattern ESCAPE '\\' OR LOWER(t.description) LIKE :pattern ESCAPE '\\'
+            """;
+
+    private static final String AFTER_POSITION = """
+            WHERE hits.relevance < :afterRank OR (hits.relevance = :afterRank AND hits.id > :afterId)
+            """;
+
+    private static final RowMapper<TaskSearchHit> HIT_MAPPER = (resultSet, rowNum) -> {
+        Task task = new Task();
+        task.setId(resultSet.getLong("id"));
+        task.setTitle(resultSet.getString("title"));
+        task.setDescription(resultSet.getString("description"));
+        Timestamp dueDate = resultSet.getTimestamp("due_date");
+        task.setDueDate(dueDate == null ? null : dueDate.toLocalDateTime());
+        task.setCompleted(resultSet.getBoolean("completed"));
+        return new TaskSearchHit(task, resultSet.getFloat("relevance"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean fullTextSupported;
+
+    /**
+     * Поиск задач по словам запроса.
+     *
+     * @param query     Поисковый запрос.
+     * @param afterRank Релевантность последней прочитанной задачи или null для первой порции.
+     * @param afterId   ID последней прочитанной задачи или null для первой порции.
+     * @param limit     Максимальное количество задач.
+     * @return Найденные задачи в порядке убывания релевантности.
+     */
+    public List<TaskSearchHit> search(String query, Float afterRank, Long afterId, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("query", query)
+                .addValue("pattern", "%" + escapeLike(query.toLowerCase(Locale.ROOT)) + "%")
+                .addValue("afterRank", afterRank)
+                .addValue("afterId", afterId)
+                .addValue("limit", limit);
+        String sql = "SELECT * FROM (" + (isFullTextSupported() ? FULL_TEXT_HITS : SUBSTRING_HITS) + ") hits "
+                + (afterId == null ? "" : AFTER_POSITION)
+                + "ORDER BY hits.relevance DESC, hits.id LIMIT :limit";
+        return jdbcTemplate.query(sql, parameters, HIT_MAPPER);
+    }
+
+    private boolean isFullTextSupported() {
+        Boolean supported = fullTextSupported;
+        if (supported == null) {
+            supported = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            fullTextSupported = supported;
+        }
+        return Boolean.TRUE.equals(supported);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,109 @@
+package org.petukhov.taskmanager.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.petukhov.taskmanager.entity.Task;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Условия отбора задач для запросов по спецификации.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    /**
+     * Проверка, задано ли в фильтре хотя бы одно условие.
+     *
+     * @param filter Условия отбора задач.
+     * @return true, если фильтр что-либо отбирает.
+     */
+    public static boolean hasCriteria(TaskFilterDTO filter) {
+        return filter != null && (filter.getCompleted() != null
+                || filter.getDueFrom() != null
+                || filter.getDueTo() != null
+                || filter.getOverdue() != null);
+    }
+
+    /**
+     * Проверка, зависит ли результат отбора по фильтру от текущего момента.
+     * Такие запросы каждый раз выполняются с новым моментом времени, поэтому
+     * их результаты не кэшируются.
+     *
+     * @param filter Условия отбора задач.
+     * @return true, если фильтр отбирает задачи по просроченности.
+     */
+    public static boolean isTimeDependent(TaskFilterDTO filter) {
+        return filter != null && filter.getOverdue() != null;
+    }
+
+    /**
+     * Задачи, удовлетворяющие фильтру.
+     * Срок задается полуинтервалом [dueFrom, dueTo), просроченной считается
+     * невыполненная задача со сроком раньше текущего момента.
+     *
+     * @param filter Условия отбора задач.
+     * @param now    Текущий момент.
+     * @return Спецификация задач.
+     */
+    public static Specification<Task> matching(TaskFilterDTO filter, LocalDateTime now) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getCompleted() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("completed"), filter.getCompleted()));
+            }
+            if (filter.getDueFrom() != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("dueDate"), filter.getDueFrom()));
+            }
+            if (filter.getDueTo() != null) {
+                predicates.add(criteriaBuilder.lessThan(root.get("dueDate"), filter.getDueTo()));
+            }
+            if (filter.getOverdue() != null) {
+                Predicate overdue = criteriaBuilder.and(
+                        criteriaBuilder.isFalse(root.get("completed")),
+                        criteriaBuilder.lessThan(root.get("dueDate"), now));
+                predicates.add(filter.getOverdue() ? overdue : criteriaBuilder.or(
+                        criteriaBuilder.isTrue(root.get("completed")),
+                        criteriaBuilder.isNull(root.get("dueDate")),
+                        criteriaBuilder.greaterThanOrEqualTo(root.get("dueDate"), now)));
+            }
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Задачи с ID больше указанного.
+     *
+     * @param id ID последней прочитанной задачи.
+     * @return Спецификация задач.
+     */
+    public static Specification<Task> idGreaterThan(Long id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * Выполненные или невыполненные задачи.
+     *
+     * @param completed Признак выполнения.
+     * @return Спецификация задач.
+     */
+    public static Specification<Task> completed(boolean completed) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.equal(root.get("completed"), completed);
+    }
+
+    /**
+     * Задачи с ID из списка.
+     *
+     * @param ids ID задач.
+     * @return Спецификация задач.
+     */
+    public static Specification<Task> idIn(Collection<Long> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+}
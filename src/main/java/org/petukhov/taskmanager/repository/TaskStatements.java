@@ -0,0 +1,167 @@
+package org.petukhov.taskmanager.repository;
+
+import org.petukhov.taskmanager.entity.Task;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Изменяющие запросы к таблице tasks, выполняемые напрямую через JDBC.
+ * <p>
+ * Каждый запрос одним обращением к базе данных изменяет строки и возвращает их
+ * состояние до изменения и новую версию: в PostgreSQL через UPDATE/DELETE ... RETURNING,
+ * в остальных базах данных (H2 в тестах) через выборку из OLD TABLE (...).
+ * Прежнее состояние в PostgreSQL читается в том же запросе с блокировкой
+ * строк, поэтому соответствует именно той версии строки, которая была изменена.
+ * <p>
+ * Запросы выполняются в текущей транзакции источника данных шаблона и не
+ * затрагивают кэш второго уровня Hibernate: вытеснение измененных задач из
+ * кэша остается за вызывающим кодом.
+ */
+public class TaskStatements {
+
+    private static final Map<String, String> PATCHABLE_COLUMNS = Map.of(
+            "title", "title",
+            "description", "description",
+            "dueDate", "due_date",
+            "completed", "completed");
+
+    private static final RowMapper<TaskMutation> MUTATION_MAPPER = (resultSet, rowNum) -> {
+        Timestamp dueDate = resultSet.getTimestamp("due_date");
+        return new TaskMutation(resultSet.getLong("id"),
+                new TaskStatsKey(dueDate == null ? null : dueDate.toLocalDateTime(), resultSet.getBoolean("completed")),
+                resultSet.getLong("version"));
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    private volatile Boolean returningSupported;
+
+    public TaskStatements(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Замена всех полей задачи.
+     *
+     * @param expectedVersion Ожидаемая версия задачи или null, если версия не проверяется.
+     * @return Прежнее состояние и новая версия задачи; пусто, если задача не изменена.
+     */
+    public Optional<TaskMutation> updateTask(Long id, Long expectedVersion, String title, String description,
+                                             LocalDateTime dueDate, boolean completed) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("version", expectedVersion)
+                .addValue("title", title)
+                .addValue("description", description)
+                .addValue("dueDate", dueDate)
+                .addValue("completed", completed);
+        return single(update("title = :title, description = :description, due_date = :dueDate, completed = :completed",
+                byIdAndVersion(expectedVersion), parameters));
+    }
+
+    /**
+     * Обновление указанных полей задачи.
+     *
+     * @param expectedVersion Ожидаемая версия задачи или null, если версия не проверяется.
+     * @param fields          Имена полей сущности {@link Task} и новые значения.
+     * @return Прежнее состояние и новая версия задачи; пусто, если задача не изменена.
+     */
+    public Optional<TaskMutation> updateFields(Long id, Long expectedVersion, Map<String, Object> fields) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("id", id)
+                .addValue("version", expectedVersion);
+        StringBuilder assignments = new StringBuilder();
+        fields.forEach((field, value) -> {
+            String column = PATCHABLE_COLUMNS.get(field);
+            if (column == null) {
+                throw new IllegalArgumentException("Поле задачи не может быть изменено: " + field);
+            }
+            if (!assignments.isEmpty()) {
+                assignments.append(", ");
+            }
+            assignments.append(column).append(" = :").append(field);
+            parameters.addValue(field, value);
+        });
+        return single(update(assignments.toString(), byIdAndVersion(expectedVersion), parameters));
+    }
+
+    /**
+     * Отметка задачи выполненной.
+     *
+     * @return Прежнее состояние и новая версия задачи; пусто, если задача не найдена.
+     */
+    public Optional<TaskMutation> completeTask(Long id) {
+        return single(update("completed = TRUE", "id = :id", new MapSqlParameterSource("id", id)));
+    }
+
+    /**
+     * Отметка выполненными невыполненных задач из списка.
+     *
+     * @return Прежнее состояние и новая версия каждой выполненной задачи.
+     */
+    public List<TaskMutation> completeTasksByIds(Collection<Long> ids) {
+        return update("completed = TRUE", "id IN (:ids) AND completed = FALSE", new MapSqlParameterSource("ids", ids));
+    }
+
+    /**
+     * Удаление задачи.
+     *
+     * @return Состояние удаленной задачи; пусто, если задача не найдена.
+     */
+    public Optional<TaskMutation> deleteTaskById(Long id) {
+        return single(delete("id = :id", new MapSqlParameterSource("id", id)));
+    }
+
+    /**
+     * Удаление задач из списка.
+     *
+     * @return Состояние каждой удаленной задачи.
+     */
+    public List<TaskMutation> deleteTasksByIds(Collection<Long> ids) {
+        return delete("id IN (:ids)", new MapSqlParameterSource("ids", ids));
+    }
+
+    private List<TaskMutation> update(String assignments, String condition, MapSqlParameterSource parameters) {
+        String sql = isReturningSupported()
+                ? "WITH old AS (SELECT id, due_date, completed FROM tasks WHERE " + condition + " FOR UPDATE) "
+                        + "UPDATE tasks t SET " + assignments + ", version = t.version + 1 FROM old "
+                        + "WHERE t.id = old.id RETURNING t.id, old.due_date, old.completed, t.version"
+                : "SELECT id, due_date, completed, version + 1 AS version FROM OLD TABLE ("
+                        + "UPDATE tasks SET " + assignments + ", version = version + 1 WHERE " + condition + ")";
+        return jdbcTemplate.query(sql, parameters, MUTATION_MAPPER);
+    }
+
+    private List<TaskMutation> delete(String condition, MapSqlParameterSource parameters) {
+        String sql = isReturningSupported()
+                ? "DELETE FROM tasks WHERE " + condition + " RETURNING id, due_date, completed, version"
+                : "SELECT id, due_date, completed, version FROM OLD TABLE (DELETE FROM tasks WHERE " + condition + ")";
+        return jdbcTemplate.query(sql, parameters, MUTATION_MAPPER);
+    }
+
+    private static String byIdAndVersion(Long expectedVersion) {
+        return expectedVersion == null ? "id = :id" : "id = :id AND version = :version";
+    }
+
+    private static Optional<TaskMutation> single(List<TaskMutation> mutations) {
+        return mutations.stream().findFirst();
+    }
+
+    private boolean isReturningSupported() {
+        Boolean supported = returningSupported;
+        if (supported == null) {
+            supported = jdbcTemplate.getJdbcTemplate().execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            returningSupported = supported;
+        }
+        return Boolean.TRUE.equals(supported);
+    }
+}
@@ -0,0 +1,10 @@
+package org.petukhov.taskmanager.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Количество задач с одним днем срока и одним признаком выполнения.
+ * День срока равен null для задач без срока.
+ */
+public record TaskStatsCount(LocalDate dueDay, Boolean completed, Long count) {
+}
@@ -0,0 +1,9 @@
+package org.petukhov.taskmanager.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Поля задачи, от которых зависит ее учет в статистике.
+ */
+public record TaskStatsKey(LocalDateTime dueDate, boolean completed) {
+}
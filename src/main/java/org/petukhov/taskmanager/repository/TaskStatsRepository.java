@@ -0,0 +1,9 @@
+package org.petukhov.taskmanager.repository;
+
+import org.petukhov.taskmanager.entity.TaskStatsEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TaskStatsRepository extends JpaRepository<TaskStatsEntry, Long> {
+}
@@ -0,0 +1,123 @@
+package org.petukhov.taskmanager.repository;
+
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.petukhov.taskmanager.entity.Task;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Хранилище задач: чтение и изменение таблицы tasks.
+ * <p>
+ * Задачи хранятся либо в основной базе данных ({@link JpaTaskStore}), либо в шардах
+ * ({@link org.petukhov.taskmanager.sharding.ShardedTaskStore}). Сервис задач работает
+ * только через хранилище, а статистику и события об изменении записывает сам
+ * в транзакции основной базы данных.
+ */
+public interface TaskStore {
+
+    /**
+     * Сохранение новой задачи.
+     *
+     * @return Сохраненная задача с присвоенным ID.
+     */
+    Task save(Task task);
+
+    /**
+     * Сохранение новых задач в одной транзакции хранилища.
+     *
+     * @return Сохраненные задачи с присвоенными ID в том же порядке.
+     */
+    List<Task> saveAll(List<Task> tasks);
+
+    Optional<Task> findById(Long id);
+
+    boolean existsById(Long id);
+
+    /**
+     * Версия задачи без чтения остальных полей.
+     */
+    Optional<Long> findVersionById(Long id);
+
+    List<Task> findAllById(Collection<Long> ids);
+
+    /**
+     * Страница задач в порядке ID.
+     *
+     * @param filter     Условия отбора задач или null.
+     * @param pageNumber Номер страницы, начиная с 1.
+     * @param pageSize   Размер страницы.
+     */
+    List<Task> findPage(TaskFilterDTO filter, int pageNumber, int pageSize);
+
+    /**
+     * Порция задач в порядке ID, следующих за указанным ID.
+     *
+     * @param filter   Условия отбора задач или null.
+     * @param afterId  ID, после которого читаются задачи, или null для чтения с начала.
+     * @param pageSize Размер порции.
+     * @return Порция задач с признаком наличия следующей порции.
+     */
+    Slice<Task> findAfter(TaskFilterDTO filter, Long afterId, int pageSize);
+
+    /**
+     * Полнотекстовый поиск задач по убыванию релевантности.
+     *
+     * @see TaskSearchRepository#search
+     */
+    List<TaskSearchHit> search(String query, Float afterRank, Long afterId, int limit);
+
+    /**
+     * Чтение всех задач без загрузки их в память целиком.
+     */
+    void forEach(Consumer<Task> consumer);
+
+    /**
+     * Замена всех полей задачи.
+     *
+     * @see TaskRepositoryCustom#updateTask
+     */
+    Optional<TaskMutation> updateTask(Long id, Long expectedVersion, String title, String description,
+                                      LocalDateTime dueDate, boolean completed);
+
+    /**
+     * Обновление указанных полей задачи.
+     *
+     * @see TaskRepositoryCustom#updateFields
+     */
+    Optional<TaskMutation> updateFields(Long id, Long expectedVersion, Map<String, Object> fields);
+
+    /**
+     * Отметка задачи выполненной.
+     *
+     * @see TaskRepositoryCustom#completeTask
+     */
+    Optional<TaskMutation> completeTask(Long id);
+
+    /**
+     * Удаление задачи.
+     *
+     * @see TaskRepositoryCustom#deleteTaskById
+     */
+    Optional<TaskMutation> deleteTaskById(Long id);
+
+    /**
+     * Отметка выполненными невыполненных задач порции.
+     */
+    TaskChunk completeChunk(TaskChunkQuery query);
+
+    /**
+     * Удаление задач порции.
+     */
+    TaskChunk deleteChunk(TaskChunkQuery query);
+
+    /**
+     * Количество задач по дням срока и признаку выполнения.
+     */
+    List<TaskStatsCount> countByDueDayAndCompleted();
+}
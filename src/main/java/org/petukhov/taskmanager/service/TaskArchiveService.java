@@ -0,0 +1,5 @@
+package org.petukhov.taskmanager.service;
+
+public interface TaskArchiveService {
+    long archiveCompletedTasks();
+}
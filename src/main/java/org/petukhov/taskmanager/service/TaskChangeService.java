@@ -0,0 +1,12 @@
+package org.petukhov.taskmanager.service;
+
+import org.petukhov.taskmanager.dto.TaskChangeDTO;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public interface TaskChangeService {
+
+    CompletableFuture<List<TaskChangeDTO>> getChanges(Long since, Integer limit, Duration wait);
+}
@@ -0,0 +1,15 @@
+package org.petukhov.taskmanager.service;
+
+import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskIngestStatusDTO;
+
+import java.util.UUID;
+
+public interface TaskIngestService {
+
+    boolean isEnabled();
+
+    TaskIngestStatusDTO submit(CreateTaskDTO createTaskDTO);
+
+    TaskIngestStatusDTO getStatus(UUID trackingId);
+}
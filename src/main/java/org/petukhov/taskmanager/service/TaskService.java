@@ -1,18 +1,55 @@
 package org.petukhov.taskmanager.service;
 
 import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskBatchResultDTO;
+import org.petukhov.taskmanager.dto.TaskBulkRequestDTO;
+import org.petukhov.taskmanager.dto.TaskBulkResultDTO;
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
 import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.dto.TaskLookupDTO;
+import org.petukhov.taskmanager.dto.TaskPatchDTO;
+import org.petukhov.taskmanager.dto.TaskSliceDTO;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 public interface TaskService {
     void createTask(CreateTaskDTO createTaskDTO);
 
+    List<TaskBatchResultDTO> createTasks(List<CreateTaskDTO> createTaskDTOs);
+
     TaskInfoDTO getTaskInfo(Long taskId);
 
+    long getTaskVersion(Long taskId);
+
     List<TaskInfoDTO> getAllTasks(Integer pageNumber, Integer pageSize);
 
+    List<TaskInfoDTO> getAllTasks(TaskFilterDTO filter, Integer pageNumber, Integer pageSize);
+
+    TaskSliceDTO getTasksAfter(String after, Integer pageSize);
+
+    TaskSliceDTO getTasksAfter(TaskFilterDTO filter, String after, Integer pageSize);
+
+    TaskLookupDTO getTasksByIds(List<Long> taskIds);
+
+    TaskSliceDTO searchTasks(String query, String after, Integer pageSize);
+
+    void exportTasks(OutputStream outputStream) throws IOException;
+
     void deleteTask(Long taskId);
 
     TaskInfoDTO updateTaskInfo(Long taskId, TaskInfoDTO createTaskDTO);
+
+    TaskInfoDTO updateTaskInfo(Long taskId, TaskInfoDTO createTaskDTO, Long expectedVersion);
+
+    TaskBulkResultDTO deleteTasks(TaskBulkRequestDTO request);
+
+    TaskBulkResultDTO completeTasks(TaskBulkRequestDTO request);
+
+    void patchTask(Long taskId, TaskPatchDTO taskPatchDTO);
+
+    void patchTask(Long taskId, TaskPatchDTO taskPatchDTO, Long expectedVersion);
+
+    void completeTask(Long taskId);
 }
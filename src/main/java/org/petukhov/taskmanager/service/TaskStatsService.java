@@ -0,0 +1,13 @@
+package org.petukhov.taskmanager.service;
+
+import org.petukhov.taskmanager.dto.TaskStatsDTO;
+import org.petukhov.taskmanager.repository.TaskStatsKey;
+
+public interface TaskStatsService {
+
+    TaskStatsDTO getStats();
+
+    void record(TaskStatsKey key, long delta);
+
+    void reconcile();
+}
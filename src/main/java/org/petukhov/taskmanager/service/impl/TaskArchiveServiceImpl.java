@@ -0,0 +1,89 @@
+package org.petukhov.taskmanager.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.petukhov.taskmanager.cache.TaskInfoCache;
+import org.petukhov.taskmanager.config.TaskArchiveProperties;
+import org.petukhov.taskmanager.config.TaskBatchProperties;
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.petukhov.taskmanager.entity.Task;
+import org.petukhov.taskmanager.repository.ArchivedTaskRepository;
+import org.petukhov.taskmanager.repository.TaskRepository;
+import org.petukhov.taskmanager.repository.TaskMutation;
+import org.petukhov.taskmanager.repository.TaskSpecifications;
+import org.petukhov.taskmanager.service.TaskArchiveService;
+import org.petukhov.taskmanager.service.TaskStatsService;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Перенос выполненных задач в архив, чтобы таблица tasks содержала
+ * только актуальные задачи.
+ * <p>
+ * Задача переносится, если она выполнена и ее срок истек раньше, чем
+ * task-manager.archive.retention назад. Перенос идет порциями по
+ * chunk-size задач: каждая порция отбирается с блокировкой строк, копируется
+ * в tasks_archive и удаляется из tasks в одной транзакции, поэтому задача,
+ * которую успели изменить после отбора, не попадет в архив в прежнем состоянии.
+ * Статистика уменьшается по состоянию каждой удаленной задачи.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskArchiveServiceImpl implements TaskArchiveService {
+
+    private final TaskRepository taskRepository;
+    private final ArchivedTaskRepository archivedTaskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskBatchProperties batchProperties;
+    private final TaskArchiveProperties archiveProperties;
+    private final TaskInfoCache taskInfoCache;
+    private final TaskStatsService taskStatsService;
+
+    /**
+     * Перенос задач в архив по расписанию task-manager.archive.cron.
+     */
+    @Scheduled(cron = "${task-manager.archive.cron:0 0 3 * * *}")
+    public void archiveOnSchedule() {
+        if (!archiveProperties.isEnabled()) {
+            return;
+        }
+        long archived = archiveCompletedTasks();
+        log.info("В архив перенесено задач: {}", archived);
+    }
+
+    /**
+     * Перенос в архив выполненных задач, срок которых истек раньше периода хранения.
+     *
+     * @return Количество перенесенных задач.
+     */
+    @Override
+    public long archiveCompletedTasks() {
+        LocalDateTime now = LocalDateTime.now();
+        TaskFilterDTO archivable = new TaskFilterDTO(true, null, now.minus(archiveProperties.getRetention()), null);
+        Specification<Task> specification = TaskSpecifications.matching(archivable, now);
+        long archived = 0;
+        List<Long> ids;
+        do {
+            ids = transactionTemplate.execute(status -> {
+                List<Long> chunk = taskRepository.findIdsForUpdate(specification, batchProperties.getChunkSize());
+                if (!chunk.isEmpty()) {
+                    archivedTaskRepository.copyFromTasks(chunk, now);
+                    taskRepository.deleteTasksByIds(chunk).stream()
+                            .collect(Collectors.groupingBy(TaskMutation::before, Collectors.counting()))
+                            .forEach((before, deleted) -> taskStatsService.record(before, -deleted));
+                }
+                return chunk;
+            });
+            archived += ids.size();
+            ids.forEach(taskInfoCache::evict);
+        } while (ids.size() == batchProperties.getChunkSize());
+        return archived;
+    }
+}
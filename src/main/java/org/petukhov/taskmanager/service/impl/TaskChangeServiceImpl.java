@@ -0,0 +1,99 @@
+package org.petukhov.taskmanager.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.petukhov.taskmanager.config.TaskBatchProperties;
+import org.petukhov.taskmanager.config.TaskOutboxProperties;
+import org.petukhov.taskmanager.dto.TaskChangeDTO;
+import org.petukhov.taskmanager.exception.InvalidRequestException;
+import org.petukhov.taskmanager.mapper.TaskMapper;
+import org.petukhov.taskmanager.outbox.TaskChangeSink;
+import org.petukhov.taskmanager.repository.TaskOutboxRepository;
+import org.petukhov.taskmanager.service.TaskChangeService;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Лента изменений задач с долгим опросом.
+ * <p>
+ * Если после указанной позиции изменений нет, запрос ждет, пока
+ * {@link org.petukhov.taskmanager.outbox.TaskOutboxRelay} не опубликует новые,
+ * но не дольше заданного времени. Ожидающие запросы получают изменения прямо
+ * из опубликованного пакета, без повторного чтения таблицы.
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskChangeServiceImpl implements TaskChangeService, TaskChangeSink {
+
+    private final TaskOutboxRepository taskOutboxRepository;
+    private final TaskMapper taskMapper;
+    private final TaskBatchProperties batchProperties;
+    private final TaskOutboxProperties outboxProperties;
+
+    private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Получение изменений задач после указанной позиции.
+     *
+     * @param since Позиция последнего полученного изменения или 0, чтобы читать с начала ленты.
+     * @param limit Максимальное количество изменений.
+     * @param wait  Максимальное время ожидания, если новых изменений нет.
+     * @return Изменения в порядке возрастания позиции; пустой список, если за время ожидания изменений не появилось.
+     * @throws InvalidRequestException Если параметры вне допустимых пределов.
+     */
+    @Override
+    public CompletableFuture<List<TaskChangeDTO>> getChanges(Long since, Integer limit, Duration wait) {
+        if (since < 0) {
+            throw new InvalidRequestException("Позиция не может быть отрицательной");
+        }
+        if (limit < 1 || limit > batchProperties.getMaxSize()) {
+            throw new InvalidRequestException("Количество изменений должно быть от 1 до " + batchProperties.getMaxSize());
+        }
+        if (wait.isNegative() || wait.compareTo(outboxProperties.getMaxWait()) > 0) {
+            throw new InvalidRequestException("Время ожидания не может превышать " + outboxProperties.getMaxWait().toSeconds() + " с");
+        }
+        Waiter waiter = new Waiter(since, limit, new CompletableFuture<>());
+        waiters.add(waiter);
+        waiter.result().whenComplete((changes, e) -> waiters.remove(waiter));
+
+        List<TaskChangeDTO> changes = readChanges(since, limit);
+        if (!changes.isEmpty() || wait.isZero()) {
+            waiter.result().complete(changes);
+        }
+        return waiter.result().completeOnTimeout(List.of(), wait.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Передача опубликованных изменений ожидающим запросам.
+     *
+     * @param changes Опубликованные изменения.
+     */
+    @Override
+    public void publish(List<TaskChangeDTO> changes) {
+        long firstPosition = changes.get(0).getPosition();
+        for (Waiter waiter : waiters) {
+            List<TaskChangeDTO> result = waiter.since() >= firstPosition - 1
+                    ? changes.stream().filter(change -> change.getPosition() > waiter.since()).limit(waiter.limit()).toList()
+                    : readChanges(waiter.since(), waiter.limit());
+            if (!result.isEmpty()) {
+                waiter.result().complete(result);
+            }
+        }
+    }
+
+    private List<TaskChangeDTO> readChanges(long since, int limit) {
+        return taskOutboxRepository.findByFeedPositionGreaterThanOrderByFeedPositionAsc(since, PageRequest.of(0, limit))
+                .stream()
+                .map(taskMapper::toTaskChangeDTO)
+                .toList();
+    }
+
+    private record Waiter(long since, int limit, CompletableFuture<List<TaskChangeDTO>> result) {
+    }
+}
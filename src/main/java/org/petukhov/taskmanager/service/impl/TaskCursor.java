@@ -0,0 +1,60 @@
+package org.petukhov.taskmanager.service.impl;
+
+import org.petukhov.taskmanager.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Непрозрачный курсор для постраничного чтения задач по ключу.
+ * Клиент получает его в ответе и передает обратно без изменений.
+ */
+public final class TaskCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private TaskCursor() {
+    }
+
+    /**
+     * Позиция в результатах поиска: релевантность и ID последней прочитанной задачи.
+     */
+    public record SearchPosition(float rank, Long taskId) {
+    }
+
+    public static String encode(Long lastTaskId) {
+        return encodeValue(String.valueOf(lastTaskId));
+    }
+
+    public static String encode(float rank, Long lastTaskId) {
+        return encodeValue(rank + SEPARATOR + lastTaskId);
+    }
+
+    public static Long decode(String cursor) {
+        try {
+            return Long.valueOf(decodeValue(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Некорректный курсор: " + cursor);
+        }
+    }
+
+    public static SearchPosition decodeSearchPosition(String cursor) {
+        try {
+            String[] parts = decodeValue(cursor).split(SEPARATOR, 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(cursor);
+            }
+            return new SearchPosition(Float.parseFloat(parts[0]), Long.valueOf(parts[1]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Некорректный курсор: " + cursor);
+        }
+    }
+
+    private static String encodeValue(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String decodeValue(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
+}
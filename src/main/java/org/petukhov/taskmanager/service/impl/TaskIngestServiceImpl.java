@@ -0,0 +1,240 @@
+package org.petukhov.taskmanager.service.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.petukhov.taskmanager.config.TaskIngestProperties;
+import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskBatchResultDTO;
+import org.petukhov.taskmanager.dto.TaskIngestStatusDTO;
+import org.petukhov.taskmanager.exception.TaskIngestRejectedException;
+import org.petukhov.taskmanager.exception.TaskNotFoundException;
+import org.petukhov.taskmanager.service.TaskIngestService;
+import org.petukhov.taskmanager.service.TaskService;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Асинхронное создание задач через ограниченную очередь в памяти.
+ * <p>
+ * Задачи ставятся в очередь и сохраняются фоновым потоком пакетами через
+ * {@link TaskService#createTasks(List)}. Клиент получает идентификатор
+ * отслеживания, по которому можно узнать ID созданной задачи. При остановке
+ * приложения новые задачи отклоняются, а очередь сохраняется до конца, но не дольше
+ * shutdown-timeout; не сохраненные за это время задачи получают статус FAILED.
+ */
+@Slf4j
+@Service
+public class TaskIngestServiceImpl implements TaskIngestService, SmartLifecycle {
+
+    static final String QUEUE_DEPTH_METRIC = "task.manager.ingest.queue.depth";
+    static final String FLUSH_METRIC = "task.manager.ingest.flush";
+    static final String REJECTED_METRIC = "task.manager.ingest.rejected";
+
+    /**
+     * Очередь останавливается после веб-сервера, чтобы сохранить задачи,
+     * принятые последними запросами.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+
+    private final TaskService taskService;
+    private final TaskIngestProperties properties;
+    private final BlockingQueue<IngestItem> queue;
+    private final Cache<UUID, TaskIngestStatusDTO> statuses;
+    private final Timer flushTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * Постановка в очередь выполняется под общей блокировкой, а остановка - под
+     * исключительной, поэтому после остановки в очередь ничего не добавляется.
+     */
+    private final ReadWriteLock stopLock = new ReentrantReadWriteLock();
+
+    private volatile boolean running;
+    private Thread drainer;
+
+    public TaskIngestServiceImpl(TaskService taskService, TaskIngestProperties properties, MeterRegistry meterRegistry) {
+        this.taskService = taskService;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        this.statuses = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getStatusRetention())
+                .maximumSize(properties.getMaxStatuses())
+                .build();
+        this.flushTimer = Timer.builder(FLUSH_METRIC).register(meterRegistry);
+        this.rejectedCounter = meterRegistry.counter(REJECTED_METRIC);
+        meterRegistry.gauge(QUEUE_DEPTH_METRIC, queue, BlockingQueue::size);
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Постановка задачи в очередь на создание.
+     *
+     * @param createTaskDTO DTO для создания задачи.
+     * @return Статус задачи с идентификатором отслеживания.
+     * @throws TaskIngestRejectedException Если очередь заполнена или остановлена.
+     */
+    @Override
+    public TaskIngestStatusDTO submit(CreateTaskDTO createTaskDTO) {
+        Lock lock = stopLock.readLock();
+        lock.lock();
+        try {
+            if (!running) {
+                throw new TaskIngestRejectedException("Очередь создания задач остановлена");
+            }
+            UUID trackingId = UUID.randomUUID();
+            TaskIngestStatusDTO pending = new TaskIngestStatusDTO(trackingId, TaskIngestStatusDTO.Status.PENDING, null, null);
+            statuses.put(trackingId, pending);
+            if (!offer(new IngestItem(trackingId, createTaskDTO))) {
+                statuses.invalidate(trackingId);
+                rejectedCounter.increment();
+                throw new TaskIngestRejectedException("Очередь создания задач заполнена");
+            }
+            return pending;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Получение статуса задачи по идентификатору отслеживания.
+     *
+     * @param trackingId Идентификатор отслеживания.
+     * @return Статус задачи.
+     * @throws TaskNotFoundException Если статус не найден или уже удален по истечении времени хранения.
+     */
+    @Override
+    public TaskIngestStatusDTO getStatus(UUID trackingId) {
+        TaskIngestStatusDTO status = statuses.getIfPresent(trackingId);
+        if (status == null) {
+            throw new TaskNotFoundException("Задача с идентификатором отслеживания " + trackingId + " не найдена");
+        }
+        return status;
+    }
+
+    private boolean offer(IngestItem item) {
+        if (properties.getOverflowPolicy() == TaskIngestProperties.OverflowPolicy.REJECT) {
+            return queue.offer(item);
+        }
+        try {
+            return queue.offer(item, properties.getBlockTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        drainer = new Thread(this::drain, "task-ingest-drainer");
+        drainer.start();
+    }
+
+    @Override
+    public void stop() {
+        Lock lock = stopLock.writeLock();
+        lock.lock();
+        try {
+            running = false;
+        } finally {
+            lock.unlock();
+        }
+        try {
+            drainer.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (drainer.isAlive()) {
+            log.warn("Очередь создания задач не сохранена полностью при остановке, осталось задач: {}", queue.size());
+            drainer.interrupt();
+        }
+        List<IngestItem> unsaved = new ArrayList<>();
+        queue.drainTo(unsaved);
+        for (IngestItem item : unsaved) {
+            statuses.put(item.trackingId(), new TaskIngestStatusDTO(item.trackingId(),
+                    TaskIngestStatusDTO.Status.FAILED, null, "Приложение остановлено до сохранения задачи"));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void drain() {
+        List<IngestItem> batch = new ArrayList<>(properties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                IngestItem first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+                flush(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Сохранение пакета задач из очереди и обновление их статусов.
+     *
+     * @param batch Задачи из очереди.
+     */
+    void flush(List<IngestItem> batch) {
+        long start = System.nanoTime();
+        try {
+            List<TaskBatchResultDTO> results = taskService.createTasks(batch.stream().map(IngestItem::task).toList());
+            for (TaskBatchResultDTO result : results) {
+                UUID trackingId = batch.get(result.getIndex()).trackingId();
+                statuses.put(trackingId, result.isCreated()
+                        ? new TaskIngestStatusDTO(trackingId, TaskIngestStatusDTO.Status.CREATED, result.getTaskId(), null)
+                        : new TaskIngestStatusDTO(trackingId, TaskIngestStatusDTO.Status.FAILED, null, result.getError()));
+            }
+        } catch (RuntimeException e) {
+            log.error("Не удалось сохранить {} задач из очереди: {}", batch.size(), e.getMessage());
+            for (IngestItem item : batch) {
+                statuses.put(item.trackingId(), new TaskIngestStatusDTO(item.trackingId(),
+                        TaskIngestStatusDTO.Status.FAILED, null, e.getMessage()));
+            }
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    record IngestItem(UUID trackingId, CreateTaskDTO task) {
+    }
+}
@@ -1,59 +1,222 @@
 package org.petukhov.taskmanager.service.impl;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.petukhov.taskmanager.cache.TaskInfoCache;
+import org.petukhov.taskmanager.config.TaskBatchProperties;
+import org.petukhov.taskmanager.datasource.PrimaryReads;
 import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskBatchResultDTO;
+import org.petukhov.taskmanager.dto.TaskBulkRequestDTO;
+import org.petukhov.taskmanager.dto.TaskBulkResultDTO;
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
 import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.dto.TaskLookupDTO;
+import org.petukhov.taskmanager.dto.TaskPatchDTO;
+import org.petukhov.taskmanager.dto.TaskSliceDTO;
 import org.petukhov.taskmanager.entity.Task;
+import org.petukhov.taskmanager.event.TaskChangedEvent;
+import org.petukhov.taskmanager.exception.InvalidRequestException;
 import org.petukhov.taskmanager.exception.TaskNotFoundException;
+import org.petukhov.taskmanager.exception.TaskVersionConflictException;
 import org.petukhov.taskmanager.mapper.TaskMapper;
+import org.petukhov.taskmanager.repository.ArchivedTaskRepository;
+import org.petukhov.taskmanager.repository.TaskChunk;
+import org.petukhov.taskmanager.repository.TaskChunkQuery;
+import org.petukhov.taskmanager.repository.TaskMutation;
 import org.petukhov.taskmanager.repository.TaskRepository;
+import org.petukhov.taskmanager.repository.TaskSearchHit;
+import org.petukhov.taskmanager.repository.TaskSpecifications;
+import org.petukhov.taskmanager.repository.TaskStatsKey;
+import org.petukhov.taskmanager.repository.TaskStore;
 import org.petukhov.taskmanager.service.TaskService;
-import org.springframework.data.domain.PageRequest;
+import org.petukhov.taskmanager.service.TaskStatsService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
  * Реализация сервиса для работы с задачами.
+ * <p>
+ * Задачи читаются и изменяются через {@link TaskStore}: в основной базе данных
+ * или, если заданы шарды task-manager.sharding.shards, в шардах. Статистика и
+ * события об изменении записываются в транзакции основной базы данных. При хранении
+ * задач в основной базе они фиксируются вместе с изменением задачи. При шардировании
+ * изменение фиксируется в шарде раньше: если затем транзакция основной базы
+ * не зафиксируется, изменение задачи останется без записи в outbox и в статистике
+ * (доставка не больше одного раза), а неудачное изменение в шарде в outbox не попадет.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TaskServiceImpl implements TaskService {
 
-    private final TaskRepository taskRepository;
+    private static final int LOOKUP_CHUNK_SIZE = 500;
+    private static final int EXPORT_FLUSH_INTERVAL = Integer.parseInt(TaskRepository.STREAM_FETCH_SIZE);
+
+    private final TaskStore taskStore;
+    private final ArchivedTaskRepository archivedTaskRepository;
     private final TaskMapper taskMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskBatchProperties batchProperties;
+    private final TaskInfoCache taskInfoCache;
+    private final ObjectMapper objectMapper;
+    private final TaskStatsService taskStatsService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Создание задачи.
+     * Кэш не затрагивается: ID новой задачи выдается последовательностью,
+     * и запись для него в кэше существовать не может.
      *
      * @param createTaskDTO DTO для создания задачи.
      */
     @Override
+    @Transactional
     public void createTask(CreateTaskDTO createTaskDTO) {
         Task newTask = taskMapper.toEntityTask(createTaskDTO);
         newTask.setCompleted(false);
-        taskMapper.toCreateTaskDTO(taskRepository.save(newTask));
+        Task savedTask = taskStore.save(newTask);
+        recordStats(null, new TaskStatsKey(savedTask.getDueDate(), false));
+        eventPublisher.publishEvent(TaskChangedEvent.created(savedTask.getId(), savedTask.getDueDate()));
+    }
+
+    /**
+     * Пакетное создание задач.
+     * Задачи сохраняются частями, каждая часть - в отдельной транзакции,
+     * чтобы вставки отправлялись пакетами JDBC. При шардировании часть
+     * сохраняется в один шард.
+     *
+     * @param createTaskDTOs DTO для создания задач.
+     * @return Результат создания по каждой задаче в порядке запроса.
+     * @throws InvalidRequestException Если размер пакета превышает допустимый.
+     */
+    @Override
+    public List<TaskBatchResultDTO> createTasks(List<CreateTaskDTO> createTaskDTOs) {
+        if (createTaskDTOs.size() > batchProperties.getMaxSize()) {
+            throw new InvalidRequestException("Размер пакета не может превышать " + batchProperties.getMaxSize());
+        }
+        TaskBatchResultDTO[] results = new TaskBatchResultDTO[createTaskDTOs.size()];
+        List<Integer> chunkIndexes = new ArrayList<>(batchProperties.getChunkSize());
+        List<Task> chunk = new ArrayList<>(batchProperties.getChunkSize());
+
+        for (int i = 0; i < createTaskDTOs.size(); i++) {
+            CreateTaskDTO createTaskDTO = createTaskDTOs.get(i);
+            Set<ConstraintViolation<CreateTaskDTO>> violations = validator.validate(createTaskDTO);
+            if (!violations.isEmpty()) {
+                results[i] = new TaskBatchResultDTO(i, null, false, violations.iterator().next().getMessage());
+                continue;
+            }
+            Task newTask = taskMapper.toEntityTask(createTaskDTO);
+            newTask.setCompleted(false);
+            chunkIndexes.add(i);
+            chunk.add(newTask);
+            if (chunk.size() == batchProperties.getChunkSize()) {
+                saveChunk(chunkIndexes, chunk, results);
+                chunkIndexes = new ArrayList<>(batchProperties.getChunkSize());
+                chunk = new ArrayList<>(batchProperties.getChunkSize());
+            }
+        }
+        if (!chunk.isEmpty()) {
+            saveChunk(chunkIndexes, chunk, results);
+        }
+        return Arrays.asList(results);
+    }
+
+    private void saveChunk(List<Integer> chunkIndexes, List<Task> chunk, TaskBatchResultDTO[] results) {
+        try {
+            List<Task> savedTasks = transactionTemplate.execute(status -> {
+                List<Task> saved = taskStore.saveAll(chunk);
+                for (Task savedTask : saved) {
+                    recordStats(null, new TaskStatsKey(savedTask.getDueDate(), false));
+                    eventPublisher.publishEvent(TaskChangedEvent.created(savedTask.getId(), savedTask.getDueDate()));
+                }
+                return saved;
+            });
+            for (int i = 0; i < chunkIndexes.size(); i++) {
+                int index = chunkIndexes.get(i);
+                results[index] = new TaskBatchResultDTO(index, savedTasks.get(i).getId(), true, null);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Не удалось сохранить пакет из {} задач: {}", chunk.size(), e.getMessage());
+            for (int index : chunkIndexes) {
+                results[index] = new TaskBatchResultDTO(index, null, false, e.getMostSpecificCause().getMessage());
+            }
+        }
     }
 
     /**
      * Получение информации по задаче по ее ID.
+     * Информация читается из кэша, при промахе загружается из базы данных,
+     * а если задачи нет среди актуальных, то из архива.
      *
      * @param taskId ID задачи.
      * @return Информация о задаче.
      * @throws TaskNotFoundException Если задача с указанным ID не найдена.
      */
     @Override
+    @Transactional(readOnly = true)
     public TaskInfoDTO getTaskInfo(Long taskId) {
-        Optional<Task> taskOpt = taskRepository.findById(taskId);
+        return taskInfoCache.get(taskId, () -> loadTaskInfo(taskId));
+    }
+
+    /**
+     * Получение версии задачи без чтения и преобразования остальных полей.
+     * Версия берется из кэша информации о задачах, а при промахе читается
+     * из основной базы данных, как и при загрузке информации о задаче.
+     *
+     * @param taskId ID задачи.
+     * @return Версия задачи.
+     * @throws TaskNotFoundException Если задача с указанным ID не найдена.
+     */
+    @Override
+    public long getTaskVersion(Long taskId) {
+        TaskInfoDTO cached = taskInfoCache.getIfPresent(taskId);
+        if (cached != null) {
+            return cached.getVersion();
+        }
+        return PrimaryReads.get(() -> taskStore.findVersionById(taskId)
+                .or(() -> archivedTaskRepository.findVersionById(taskId))
+                .orElseThrow(() -> new TaskNotFoundException("Задача с ID " + taskId + " не найдена")));
+    }
+
+    private TaskInfoDTO loadTaskInfo(Long taskId) {
+        Optional<Task> taskOpt = taskStore.findById(taskId);
         if (taskOpt.isPresent()) {
             return taskMapper.toTaskInfoDTO(taskOpt.get());
-        } else {
-            throw new TaskNotFoundException("Задача с ID " + taskId + " не найдена");
         }
+        return archivedTaskRepository.findById(taskId)
+                .map(taskMapper::toTaskInfoDTO)
+                .orElseThrow(() -> new TaskNotFoundException("Задача с ID " + taskId + " не найдена"));
     }
 
     /**
@@ -64,29 +227,292 @@ public class TaskServiceImpl implements TaskService {
      * @return Список информации о задачах.
      */
     @Override
+    @Transactional(readOnly = true)
     public List<TaskInfoDTO> getAllTasks(Integer pageNumber, Integer pageSize) {
-        PageRequest pageRequest = PageRequest.of(pageNumber - 1, pageSize);
-        List<Task> tasks = taskRepository.findAll(pageRequest).getContent();
-        return tasks.stream()
+        return getAllTasks(null, pageNumber, pageSize);
+    }
+
+    /**
+     * Получение информации по задачам, удовлетворяющим фильтру.
+     *
+     * @param filter     Условия отбора задач или null.
+     * @param pageNumber Номер страницы.
+     * @param pageSize   Размер страницы.
+     * @return Список информации о задачах.
+     * @throws InvalidRequestException Если страница недоступна в хранилище задач.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public List<TaskInfoDTO> getAllTasks(TaskFilterDTO filter, Integer pageNumber, Integer pageSize) {
+        return taskStore.findPage(filter, pageNumber, pageSize).stream()
                 .map(taskMapper::toTaskInfoDTO)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Удаление задачи.
+     * Получение информации по задачам, следующим за курсором.
+     * В отличие от постраничного чтения по номеру страницы, время запроса
+     * не зависит от того, насколько далеко клиент продвинулся по списку.
+     *
+     * @param after    Курсор, полученный с предыдущей порцией, или null для первой порции.
+     * @param pageSize Размер порции.
+     * @return Порция информации о задачах и курсор следующей порции.
+     * @throws InvalidRequestException Если курсор некорректен.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskSliceDTO getTasksAfter(String after, Integer pageSize) {
+        return getTasksAfter(null, after, pageSize);
+    }
+
+    /**
+     * Получение информации по задачам, удовлетворяющим фильтру и следующим за курсором.
+     *
+     * @param filter   Условия отбора задач или null.
+     * @param after    Курсор, полученный с предыдущей порцией, или null для первой порции.
+     * @param pageSize Размер порции.
+     * @return Порция информации о задачах и курсор следующей порции.
+     * @throws InvalidRequestException Если курсор некорректен.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskSliceDTO getTasksAfter(TaskFilterDTO filter, String after, Integer pageSize) {
+        Long afterId = after == null ? null : TaskCursor.decode(after);
+        Slice<Task> slice = taskStore.findAfter(filter, afterId, pageSize);
+        List<TaskInfoDTO> tasks = slice.getContent().stream()
+                .map(taskMapper::toTaskInfoDTO)
+                .collect(Collectors.toList());
+        String nextCursor = slice.hasNext()
+                ? TaskCursor.encode(slice.getContent().get(slice.getNumberOfElements() - 1).getId())
+                : null;
+        return new TaskSliceDTO(tasks, nextCursor);
+    }
+
+    /**
+     * Получение информации по задачам по списку ID.
+     * Сначала задачи ищутся в кэше, остальные читаются из базы данных
+     * запросами с условием IN по частям. Задачи возвращаются в порядке ID
+     * в запросе без повторов, ненайденные ID перечисляются отдельно.
+     *
+     * @param taskIds ID задач.
+     * @return Найденные задачи и ненайденные ID.
+     * @throws InvalidRequestException Если список содержит null или превышает допустимый размер.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskLookupDTO getTasksByIds(List<Long> taskIds) {
+        if (taskIds.size() > batchProperties.getMaxSize()) {
+            throw new InvalidRequestException("Количество ID не может превышать " + batchProperties.getMaxSize());
+        }
+        if (taskIds.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidRequestException("Список ID не может содержать null");
+        }
+        Set<Long> requestedIds = new LinkedHashSet<>(taskIds);
+        Map<Long, TaskInfoDTO> found = new HashMap<>(requestedIds.size() * 2);
+        List<Long> uncachedIds = new ArrayList<>();
+        for (Long taskId : requestedIds) {
+            TaskInfoDTO cached = taskInfoCache.getIfPresent(taskId);
+            if (cached != null) {
+                found.put(taskId, cached);
+            } else {
+                uncachedIds.add(taskId);
+            }
+        }
+        for (int from = 0; from < uncachedIds.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<Long> chunk = uncachedIds.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, uncachedIds.size()));
+            for (Task task : taskStore.findAllById(chunk)) {
+                found.put(task.getId(), taskMapper.toTaskInfoDTO(task));
+            }
+        }
+
+        List<TaskInfoDTO> tasks = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long taskId : requestedIds) {
+            TaskInfoDTO taskInfoDTO = found.get(taskId);
+            if (taskInfoDTO != null) {
+                tasks.add(taskInfoDTO);
+            } else {
+                missingIds.add(taskId);
+            }
+        }
+        return new TaskLookupDTO(tasks, missingIds);
+    }
+
+    /**
+     * Полнотекстовый поиск задач по названию и описанию.
+     * Задачи упорядочены по убыванию релевантности, следующая порция
+     * читается по курсору.
+     *
+     * @param query    Поисковый запрос.
+     * @param after    Курсор, полученный с предыдущей порцией, или null для первой порции.
+     * @param pageSize Размер порции.
+     * @return Порция найденных задач и курсор следующей порции.
+     * @throws InvalidRequestException Если запрос пуст или курсор некорректен.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TaskSliceDTO searchTasks(String query, String after, Integer pageSize) {
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Поисковый запрос не может быть пустым");
+        }
+        TaskCursor.SearchPosition position = after == null ? null : TaskCursor.decodeSearchPosition(after);
+        List<TaskSearchHit> hits = taskStore.search(query.strip(),
+                position == null ? null : position.rank(),
+                position == null ? null : position.taskId(),
+                pageSize + 1);
+
+        boolean hasNext = hits.size() > pageSize;
+        List<TaskSearchHit> page = hasNext ? hits.subList(0, pageSize) : hits;
+        List<TaskInfoDTO> tasks = page.stream()
+                .map(hit -> taskMapper.toTaskInfoDTO(hit.task()))
+                .collect(Collectors.toList());
+        TaskSearchHit last = hasNext ? page.get(page.size() - 1) : null;
+        String nextCursor = last == null ? null : TaskCursor.encode(last.rank(), last.task().getId());
+        return new TaskSliceDTO(tasks, nextCursor);
+    }
+
+    /**
+     * Выгрузка всех задач в формате NDJSON: по одному JSON-объекту на строку.
+     * Задачи читаются из хранилища без загрузки в память целиком и записываются
+     * по мере чтения, поэтому расход памяти не зависит от числа задач.
+     *
+     * @param outputStream Поток, в который записываются задачи.
+     * @throws IOException Если запись в поток не удалась.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void exportTasks(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(TaskInfoDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            AtomicLong written = new AtomicLong();
+            taskStore.forEach(task -> {
+                try {
+                    writer.writeValue(generator, taskMapper.toTaskInfoDTO(task));
+                    generator.writeRaw('\n');
+                    if (written.incrementAndGet() % EXPORT_FLUSH_INTERVAL == 0) {
+                        generator.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Удаление задачи одним запросом, без предварительного чтения.
+     * Поля удаленной задачи для статистики возвращает тот же запрос.
      *
      * @param taskId ID задачи.
      * @throws TaskNotFoundException Если задача с указанным ID не найдена.
      */
     @Override
+    @Transactional
     public void deleteTask(Long taskId) {
-        Task task = taskRepository.findById(taskId).orElseThrow(() ->
-                new TaskNotFoundException("Задача с ID " + taskId + " не найдена"));
-        taskRepository.delete(task);
+        TaskMutation deleted = taskStore.deleteTaskById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Задача с ID " + taskId + " не найдена"));
+        taskInfoCache.evict(taskId);
+        recordStats(deleted.before(), null);
+        eventPublisher.publishEvent(TaskChangedEvent.deleted(taskId));
     }
 
     /**
-     * Обновление информации о задаче.
+     * Массовое удаление задач по списку ID или по фильтру.
+     * Задачи удаляются порциями по chunk-size, каждая порция в отдельной транзакции.
+     *
+     * @param request Список ID или фильтр задач.
+     * @return Количество удаленных задач.
+     * @throws InvalidRequestException Если не указан ровно один способ отбора задач.
+     */
+    @Override
+    public TaskBulkResultDTO deleteTasks(TaskBulkRequestDTO request) {
+        return applyInChunks(request, new BulkOperation(taskStore::deleteChunk, TaskChangedEvent::deleted, key -> null));
+    }
+
+    /**
+     * Массовое выполнение задач по списку ID или по фильтру.
+     * Уже выполненные задачи не изменяются и не учитываются в результате.
+     *
+     * @param request Список ID или фильтр задач.
+     * @return Количество выполненных задач.
+     * @throws InvalidRequestException Если не указан ровно один способ отбора задач.
+     */
+    @Override
+    public TaskBulkResultDTO completeTasks(TaskBulkRequestDTO request) {
+        return applyInChunks(request, new BulkOperation(taskStore::completeChunk, TaskChangedEvent::completed,
+                key -> new TaskStatsKey(key.dueDate(), true)));
+    }
+
+    private TaskBulkResultDTO applyInChunks(TaskBulkRequestDTO request, BulkOperation operation) {
+        boolean byIds = request.getIds() != null;
+        if (byIds == (request.getFilter() != null)) {
+            throw new InvalidRequestException("Необходимо указать либо список ID, либо фильтр");
+        }
+        long affected = byIds
+                ? applyToIds(request.getIds(), operation)
+                : applyToFilter(request.getFilter(), operation);
+        return new TaskBulkResultDTO(affected);
+    }
+
+    private long applyToIds(List<Long> taskIds, BulkOperation operation) {
+        if (taskIds.size() > batchProperties.getMaxSize()) {
+            throw new InvalidRequestException("Количество ID не может превышать " + batchProperties.getMaxSize());
+        }
+        if (taskIds.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidRequestException("Список ID не может содержать null");
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(taskIds));
+        long affected = 0;
+        for (int from = 0; from < ids.size(); from += batchProperties.getChunkSize()) {
+            List<Long> chunk = ids.subList(from, Math.min(from + batchProperties.getChunkSize(), ids.size()));
+            affected += applyToChunk(TaskChunkQuery.byIds(chunk), operation).mutations().size();
+        }
+        return affected;
+    }
+
+    private long applyToFilter(TaskFilterDTO filter, BulkOperation operation) {
+        if (!TaskSpecifications.hasCriteria(filter)) {
+            throw new InvalidRequestException("Фильтр должен содержать хотя бы одно условие");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        long affected = 0;
+        Long lastId = null;
+        while (true) {
+            TaskChunk chunk = applyToChunk(TaskChunkQuery.byFilter(filter, now, lastId, batchProperties.getChunkSize()),
+                    operation);
+            affected += chunk.mutations().size();
+            if (chunk.ids().size() < batchProperties.getChunkSize()) {
+                return affected;
+            }
+            lastId = chunk.ids().get(chunk.ids().size() - 1);
+        }
+    }
+
+    /**
+     * Выполнение операции над порцией задач в одной транзакции.
+     * Запрос операции возвращает прежнее состояние затронутых задач, поэтому
+     * статистика и события об изменении учитывают только их.
+     */
+    private TaskChunk applyToChunk(TaskChunkQuery query, BulkOperation operation) {
+        TaskChunk chunk = transactionTemplate.execute(status -> {
+            TaskChunk applied = operation.statement().apply(query);
+            for (TaskMutation mutation : applied.mutations()) {
+                recordStats(mutation.before(), operation.stats().apply(mutation.before()));
+                eventPublisher.publishEvent(operation.event().apply(mutation.id()));
+            }
+            return applied;
+        });
+        chunk.ids().forEach(taskInfoCache::evict);
+        return chunk;
+    }
+
+    /**
+     * Обновление информации о задаче одним запросом, без предварительного чтения.
      *
      * @param taskId       ID задачи.
      * @param updatedTaskInfoDTO DTO для обновления информации о задаче.
@@ -94,16 +520,145 @@ public class TaskServiceImpl implements TaskService {
      * @throws TaskNotFoundException Если задача с указанным ID не найдена.
      */
     @Override
+    @Transactional
     public TaskInfoDTO updateTaskInfo(Long taskId, TaskInfoDTO updatedTaskInfoDTO) {
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Задача с id " + taskId + " не найдена"));
+        return updateTaskInfo(taskId, updatedTaskInfoDTO, null);
+    }
 
-        task.setDescription(updatedTaskInfoDTO.getDescription());
-        task.setTitle(updatedTaskInfoDTO.getTitle());
-        task.setDueDate(updatedTaskInfoDTO.getDueDate());
-        task.setCompleted(updatedTaskInfoDTO.isCompleted());
+    /**
+     * Обновление информации о задаче, если ее версия совпадает с ожидаемой.
+     *
+     * @param taskId             ID задачи.
+     * @param updatedTaskInfoDTO DTO для обновления информации о задаче.
+     * @param expectedVersion    Ожидаемая версия задачи или null, если версия не проверяется.
+     * @return Информация об обновленной задаче с новой версией.
+     * @throws TaskNotFoundException        Если задача с указанным ID не найдена.
+     * @throws TaskVersionConflictException Если версия задачи не совпадает с ожидаемой.
+     */
+    @Override
+    @Transactional
+    public TaskInfoDTO updateTaskInfo(Long taskId, TaskInfoDTO updatedTaskInfoDTO, Long expectedVersion) {
+        TaskMutation updated = taskStore.updateTask(taskId,
+                        expectedVersion,
+                        updatedTaskInfoDTO.getTitle(),
+                        updatedTaskInfoDTO.getDescription(),
+                        updatedTaskInfoDTO.getDueDate(),
+                        updatedTaskInfoDTO.isCompleted())
+                .orElseThrow(() -> notUpdated(taskId, expectedVersion));
+        taskInfoCache.evict(taskId);
+        recordStats(updated.before(),
+                new TaskStatsKey(updatedTaskInfoDTO.getDueDate(), updatedTaskInfoDTO.isCompleted()));
+        eventPublisher.publishEvent(TaskChangedEvent.updated(taskId,
+                updatedTaskInfoDTO.getDueDate(), updatedTaskInfoDTO.isCompleted()));
 
-        return taskMapper.toTaskInfoDTO(taskRepository.save(task));
+        updatedTaskInfoDTO.setTaskId(taskId);
+        updatedTaskInfoDTO.setVersion(updated.version());
+        return updatedTaskInfoDTO;
     }
-}
 
+    /**
+     * Частичное обновление задачи. Записываются только переданные поля.
+     *
+     * @param taskId       ID задачи.
+     * @param taskPatchDTO DTO с изменяемыми полями задачи.
+     * @throws TaskNotFoundException Если задача с указанным ID не найдена.
+     */
+    @Override
+    @Transactional
+    public void patchTask(Long taskId, TaskPatchDTO taskPatchDTO) {
+        patchTask(taskId, taskPatchDTO, null);
+    }
+
+    /**
+     * Частичное обновление задачи, если ее версия совпадает с ожидаемой.
+     *
+     * @param taskId          ID задачи.
+     * @param taskPatchDTO    DTO с изменяемыми полями задачи.
+     * @param expectedVersion Ожидаемая версия задачи или null, если версия не проверяется.
+     * @throws TaskNotFoundException        Если задача с указанным ID не найдена.
+     * @throws TaskVersionConflictException Если версия задачи не совпадает с ожидаемой.
+     */
+    @Override
+    @Transactional
+    public void patchTask(Long taskId, TaskPatchDTO taskPatchDTO, Long expectedVersion) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        if (taskPatchDTO.getTitle() != null) {
+            fields.put("title", taskPatchDTO.getTitle());
+        }
+        if (taskPatchDTO.getDescription() != null) {
+            fields.put("description", taskPatchDTO.getDescription());
+        }
+        if (taskPatchDTO.getDueDate() != null) {
+            fields.put("dueDate", taskPatchDTO.getDueDate());
+        }
+        if (taskPatchDTO.getCompleted() != null) {
+            fields.put("completed", taskPatchDTO.getCompleted());
+        }
+
+        if (fields.isEmpty()) {
+            if (!taskStore.existsById(taskId)) {
+                throw new TaskNotFoundException("Задача с id " + taskId + " не найдена");
+            }
+            return;
+        }
+        TaskStatsKey before = taskStore.updateFields(taskId, expectedVersion, fields)
+                .orElseThrow(() -> notUpdated(taskId, expectedVersion))
+                .before();
+        taskInfoCache.evict(taskId);
+        TaskStatsKey after = new TaskStatsKey(
+                taskPatchDTO.getDueDate() != null ? taskPatchDTO.getDueDate() : before.dueDate(),
+                taskPatchDTO.getCompleted() != null ? taskPatchDTO.getCompleted() : before.completed());
+        recordStats(before, after);
+        eventPublisher.publishEvent(TaskChangedEvent.updated(taskId, after.dueDate(), after.completed()));
+    }
+
+    private RuntimeException notUpdated(Long taskId, Long expectedVersion) {
+        if (expectedVersion != null && taskStore.existsById(taskId)) {
+            return new TaskVersionConflictException("Задача с id " + taskId + " изменена, ожидаемая версия "
+                    + expectedVersion + " устарела");
+        }
+        return new TaskNotFoundException("Задача с id " + taskId + " не найдена");
+    }
+
+    /**
+     * Отметка задачи как выполненной.
+     *
+     * @param taskId ID задачи.
+     * @throws TaskNotFoundException Если задача с указанным ID не найдена.
+     */
+    @Override
+    @Transactional
+    public void completeTask(Long taskId) {
+        TaskStatsKey before = taskStore.completeTask(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Задача с id " + taskId + " не найдена"))
+                .before();
+        taskInfoCache.evict(taskId);
+        recordStats(before, new TaskStatsKey(before.dueDate(), true));
+        eventPublisher.publishEvent(TaskChangedEvent.completed(taskId));
+    }
+
+    /**
+     * Учет изменения задачи в статистике: задача с полями before перестает
+     * учитываться, задача с полями after начинает. null означает, что задачи нет.
+     */
+    private void recordStats(TaskStatsKey before, TaskStatsKey after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        if (before != null) {
+            taskStatsService.record(before, -1);
+        }
+        if (after != null) {
+            taskStatsService.record(after, 1);
+        }
+    }
+
+    /**
+     * Массовая операция: запрос хранилища над порцией задач, событие об изменении
+     * каждой задачи и поля задачи для статистики после операции.
+     */
+    private record BulkOperation(Function<TaskChunkQuery, TaskChunk> statement,
+                                 Function<Long, TaskChangedEvent> event,
+                                 UnaryOperator<TaskStatsKey> stats) {
+    }
+}
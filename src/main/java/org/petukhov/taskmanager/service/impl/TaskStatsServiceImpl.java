@@ -0,0 +1,215 @@
+package org.petukhov.taskmanager.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.petukhov.taskmanager.dto.TaskStatsDTO;
+import org.petukhov.taskmanager.entity.TaskStatsEntry;
+import org.petukhov.taskmanager.repository.TaskStatsCount;
+import org.petukhov.taskmanager.repository.TaskStatsKey;
+import org.petukhov.taskmanager.repository.TaskStatsRepository;
+import org.petukhov.taskmanager.repository.TaskStore;
+import org.petukhov.taskmanager.service.TaskStatsService;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Статистика по задачам, которая читается без обращения к таблице tasks.
+ * <p>
+ * Счетчики хранятся в памяти: число выполненных задач, невыполненных без срока
+ * и невыполненных по дням срока. Сервис задач сообщает об изменении каждой задачи,
+ * и после фиксации транзакции соответствующие счетчики увеличиваются или уменьшаются.
+ * Чтение статистики проходит по дням срока невыполненных задач, поэтому его
+ * стоимость не зависит от размера таблицы.
+ * <p>
+ * Счетчики раз в task-manager.stats.flush-interval и при остановке приложения
+ * сохраняются в таблицу task_stats и загружаются из нее при запуске. Изменения в обход
+ * сервиса и одновременные изменения одной задачи могут внести расхождение, поэтому
+ * по расписанию task-manager.stats.reconcile-cron счетчики пересчитываются запросом
+ * с группировкой по таблице tasks, а при шардировании - по таблицам tasks всех шардов.
+ * Предполагается один экземпляр приложения, изменяющий задачи.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskStatsServiceImpl implements TaskStatsService, SmartLifecycle {
+
+    /**
+     * Счетчики загружаются раньше, чем начинают работать компоненты, изменяющие задачи,
+     * и сохраняются после их остановки.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 8192;
+
+    private final TaskStore taskStore;
+    private final TaskStatsRepository taskStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile Counters counters = new Counters();
+    private volatile boolean running;
+
+    /**
+     * Получение статистики по задачам.
+     * Задача считается просроченной, если день ее срока уже прошел.
+     *
+     * @return Количество задач всего, выполненных, невыполненных и невыполненных по срокам.
+     */
+    @Override
+    public TaskStatsDTO getStats() {
+        Counters current = counters;
+        LocalDate today = LocalDate.now();
+        LocalDate weekEnd = today.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+
+        long overdue = sum(current.openByDueDay.headMap(today, false));
+        long dueToday = sum(current.openByDueDay.subMap(today, true, today, true));
+        long dueThisWeek = sum(current.openByDueDay.subMap(today, false, weekEnd, true));
+        long dueLater = sum(current.openByDueDay.tailMap(weekEnd, false));
+        long noDueDate = current.openWithoutDueDate.sum();
+        long open = overdue + dueToday + dueThisWeek + dueLater + noDueDate;
+        long completed = current.completed.sum();
+        return new TaskStatsDTO(open + completed, completed, open, overdue, dueToday, dueThisWeek, dueLater, noDueDate);
+    }
+
+    /**
+     * Учет изменения количества задач с указанными полями.
+     * Внутри транзакции изменение применяется только после ее фиксации.
+     *
+     * @param key   Срок и признак выполнения задач.
+     * @param delta Изменение количества задач.
+     */
+    @Override
+    public void record(TaskStatsKey key, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counters.add(key, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counters.add(key, delta);
+            }
+        });
+    }
+
+    /**
+     * Пересчет счетчиков по таблице tasks по расписанию task-manager.stats.reconcile-cron.
+     */
+    @Scheduled(cron = "${task-manager.stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcileOnSchedule() {
+        reconcile();
+    }
+
+    /**
+     * Пересчет счетчиков по таблице tasks и сохранение их в таблицу task_stats.
+     */
+    @Override
+    public void reconcile() {
+        List<TaskStatsCount> counts = transactionTemplate.execute(status -> taskStore.countByDueDayAndCompleted());
+        Counters reconciled = new Counters();
+        for (TaskStatsCount count : counts) {
+            reconciled.add(count.dueDay(), count.completed(), count.count());
+        }
+        counters = reconciled;
+        flush();
+        log.info("Статистика по задачам пересчитана: {}", getStats());
+    }
+
+    /**
+     * Сохранение счетчиков в таблицу task_stats раз в task-manager.stats.flush-interval.
+     */
+    @Scheduled(fixedDelayString = "#{@taskStatsProperties.flushInterval.toMillis()}")
+    public void flush() {
+        List<TaskStatsEntry> entries = counters.toEntries();
+        transactionTemplate.executeWithoutResult(status -> {
+            taskStatsRepository.deleteAllInBatch();
+            taskStatsRepository.saveAll(entries);
+        });
+    }
+
+    @Override
+    public void start() {
+        List<TaskStatsEntry> entries = taskStatsRepository.findAll();
+        if (entries.isEmpty()) {
+            reconcile();
+        } else {
+            Counters loaded = new Counters();
+            for (TaskStatsEntry entry : entries) {
+                loaded.add(entry.getDueDay(), entry.isCompleted(), entry.getTaskCount());
+            }
+            counters = loaded;
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private static long sum(Map<LocalDate, LongAdder> openByDueDay) {
+        long sum = 0;
+        for (LongAdder adder : openByDueDay.values()) {
+            sum += adder.sum();
+        }
+        return sum;
+    }
+
+    /**
+     * Набор счетчиков. При пересчете заменяется целиком.
+     */
+    private static final class Counters {
+
+        private final LongAdder completed = new LongAdder();
+        private final LongAdder openWithoutDueDate = new LongAdder();
+        private final ConcurrentSkipListMap<LocalDate, LongAdder> openByDueDay = new ConcurrentSkipListMap<>();
+
+        void add(TaskStatsKey key, long delta) {
+            add(key.dueDate() == null ? null : key.dueDate().toLocalDate(), key.completed(), delta);
+        }
+
+        void add(LocalDate dueDay, boolean isCompleted, long delta) {
+            if (isCompleted) {
+                completed.add(delta);
+            } else if (dueDay == null) {
+                openWithoutDueDate.add(delta);
+            } else {
+                openByDueDay.computeIfAbsent(dueDay, day -> new LongAdder()).add(delta);
+            }
+        }
+
+        List<TaskStatsEntry> toEntries() {
+            List<TaskStatsEntry> entries = new ArrayList<>(openByDueDay.size() + 2);
+            entries.add(new TaskStatsEntry(null, null, true, completed.sum()));
+            entries.add(new TaskStatsEntry(null, null, false, openWithoutDueDate.sum()));
+            openByDueDay.forEach((dueDay, adder) -> {
+                long count = adder.sum();
+                if (count != 0) {
+                    entries.add(new TaskStatsEntry(null, dueDay, false, count));
+                }
+            });
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.petukhov.taskmanager.sharding;
+
+/**
+ * Результат перераспределения корзин между шардами.
+ *
+ * @param bucketsMoved Количество перенесенных корзин.
+ * @param tasksMoved   Количество перенесенных задач.
+ */
+public record ShardRebalanceResult(int bucketsMoved, long tasksMoved) {
+}
@@ -0,0 +1,240 @@
+package org.petukhov.taskmanager.sharding;
+
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.petukhov.taskmanager.entity.Task;
+import org.petukhov.taskmanager.repository.TaskStatsCount;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.BeanPropertySqlParameterSource;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Запросы к таблице tasks в шардах.
+ * Запросы по ID направляются в шард, которому принадлежит корзина задачи,
+ * запросы по списку ID группируются по шардам. Изменения задач выполняются
+ * запросами {@link org.petukhov.taskmanager.repository.TaskStatements} шарда.
+ */
+public class ShardedTaskRepository {
+
+    private static final String COLUMNS = "id, title, description, due_date, completed, version";
+
+    private static final RowMapper<Task> TASK_MAPPER = (resultSet, rowNum) -> {
+        Timestamp dueDate = resultSet.getTimestamp("due_date");
+        return new Task(resultSet.getLong("id"),
+                resultSet.getString("title"),
+                resultSet.getString("description"),
+                dueDate == null ? null : dueDate.toLocalDateTime(),
+                resultSet.getBoolean("completed"),
+                resultSet.getLong("version"));
+    };
+
+    private final TaskShards shards;
+
+    public ShardedTaskRepository(TaskShards shards) {
+        this.shards = shards;
+    }
+
+    public TaskShards shards() {
+        return shards;
+    }
+
+    public void insert(TaskShard shard, List<Task> tasks) {
+        SqlParameterSource[] parameters = tasks.stream()
+                .map(BeanPropertySqlParameterSource::new)
+                .toArray(SqlParameterSource[]::new);
+        shard.getJdbcTemplate().batchUpdate("INSERT INTO tasks (" + COLUMNS + ") "
+                + "VALUES (:id, :title, :description, :dueDate, :completed, :version)", parameters);
+    }
+
+    public Optional<Task> findById(Long id) {
+        return shards.shardOf(id).getJdbcTemplate()
+                .query("SELECT " + COLUMNS + " FROM tasks WHERE id = :id", Map.of("id", id), TASK_MAPPER)
+                .stream()
+                .findFirst();
+    }
+
+    public boolean existsById(Long id) {
+        return shards.shardOf(id).getJdbcTemplate()
+                .queryForList("SELECT id FROM tasks WHERE id = :id", Map.of("id", id), Long.class)
+                .size() == 1;
+    }
+
+    public Optional<Long> findVersionById(Long id) {
+        return shards.shardOf(id).getJdbcTemplate()
+                .queryForList("SELECT version FROM tasks WHERE id = :id", Map.of("id", id), Long.class)
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Чтение задач по списку ID из всех шардов, где они могут находиться.
+     */
+    public List<Task> findAllById(Collection<Long> ids) {
+        Map<TaskShard, List<Long>> byShard = groupByShard(ids);
+        return shards.scatter(byShard.keySet(), shard -> shard.getJdbcTemplate().query(
+                        "SELECT " + COLUMNS + " FROM tasks WHERE id IN (:ids)",
+                        Map.of("ids", byShard.get(shard)), TASK_MAPPER))
+                .stream()
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    public Map<TaskShard, List<Long>> groupByShard(Collection<Long> ids) {
+        Map<TaskShard, List<Long>> byShard = new LinkedHashMap<>();
+        for (Long id : ids) {
+            byShard.computeIfAbsent(shards.shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        return byShard;
+    }
+
+    /**
+     * Задачи шарда, удовлетворяющие фильтру, в порядке ID.
+     *
+     * @param filter  Условия отбора задач или null.
+     * @param afterId ID, после которого читаются задачи, или null.
+     * @param limit   Максимальное количество задач.
+     */
+    public List<Task> findSlice(TaskShard shard, TaskFilterDTO filter, LocalDateTime now, Long afterId, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit);
+        String where = where(filter, now, afterId, null, false, parameters);
+        return shard.getJdbcTemplate().query("SELECT " + COLUMNS + " FROM tasks" + where
+                + " ORDER BY id LIMIT :limit", parameters, TASK_MAPPER);
+    }
+
+    /**
+     * ID задач шарда для массовой операции в порядке ID.
+     *
+     * @param filter   Условия отбора задач или null.
+     * @param afterId  ID, после которого читаются задачи, или null.
+     * @param ids      ID, среди которых отбираются задачи, или null.
+     * @param openOnly Отбирать только невыполненные задачи.
+     * @param limit    Максимальное количество ID.
+     */
+    public List<Long> findIds(TaskShard shard, TaskFilterDTO filter, LocalDateTime now, Long afterId,
+                              Collection<Long> ids, boolean openOnly, int limit) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource("limit", limit);
+        String where = where(filter, now, afterId, ids, openOnly, parameters);
+        return shard.getJdbcTemplate().queryForList("SELECT id FROM tasks" + where + " ORDER BY id LIMIT :limit",
+                parameters, Long.class);
+    }
+
+    /**
+     * Чтение всех задач шарда в порядке ID без загрузки их в память целиком.
+     */
+    public void forEach(TaskShard shard, Consumer<Task> consumer) {
+        shard.getJdbcTemplate().query("SELECT " + COLUMNS + " FROM tasks ORDER BY id",
+                (RowCallbackHandler) resultSet -> consumer.accept(TASK_MAPPER.mapRow(resultSet, 0)));
+    }
+
+    /**
+     * Количество задач всех шардов по дням срока и признаку выполнения.
+     */
+    public List<TaskStatsCount> countByDueDayAndCompleted() {
+        Map<TaskStatsCount, Long> totals = new HashMap<>();
+        for (List<TaskStatsCount> counts : shards.scatter(shard -> shard.getJdbcTemplate().query(
+                "SELECT CAST(due_date AS DATE) AS due_day, completed, COUNT(*) AS task_count FROM tasks "
+                        + "GROUP BY CAST(due_date AS DATE), completed",
+                (resultSet, rowNum) -> {
+                    Date dueDay = resultSet.getDate("due_day");
+                    return new TaskStatsCount(dueDay == null ? null : dueDay.toLocalDate(),
+                            resultSet.getBoolean("completed"), resultSet.getLong("task_count"));
+                }))) {
+            for (TaskStatsCount count : counts) {
+                totals.merge(new TaskStatsCount(count.dueDay(), count.completed(), 0L), count.count(), Long::sum);
+            }
+        }
+        List<TaskStatsCount> merged = new ArrayList<>(totals.size());
+        totals.forEach((key, count) -> merged.add(new TaskStatsCount(key.dueDay(), key.completed(), count)));
+        return merged;
+    }
+
+    /**
+     * Чтение задач корзины из шарда порциями в порядке ID.
+     */
+    List<Task> findBucketSlice(TaskShard shard, int bucket, long afterId, int limit) {
+        return shard.getJdbcTemplate().query("SELECT " + COLUMNS + " FROM tasks "
+                        + "WHERE MOD(id, :buckets) = :bucket AND id > :afterId ORDER BY id LIMIT :limit",
+                new MapSqlParameterSource()
+                        .addValue("buckets", shards.bucketCount())
+                        .addValue("bucket", bucket)
+                        .addValue("afterId", afterId)
+                        .addValue("limit", limit),
+                TASK_MAPPER);
+    }
+
+    int deleteBucket(TaskShard shard, int bucket) {
+        return shard.getJdbcTemplate().update("DELETE FROM tasks WHERE MOD(id, :buckets) = :bucket",
+                new MapSqlParameterSource()
+                        .addValue("buckets", shards.bucketCount())
+                        .addValue("bucket", bucket));
+    }
+
+    /**
+     * Удаление задач корзин, не принадлежащих шарду.
+     *
+     * @param ownBuckets Корзины шарда.
+     */
+    int deleteForeignBuckets(TaskShard shard, Collection<Integer> ownBuckets) {
+        if (ownBuckets.isEmpty()) {
+            return shard.getJdbcTemplate().update("DELETE FROM tasks", Map.of());
+        }
+        return shard.getJdbcTemplate().update("DELETE FROM tasks WHERE MOD(id, :buckets) NOT IN (:ownBuckets)",
+                new MapSqlParameterSource()
+                        .addValue("buckets", shards.bucketCount())
+                        .addValue("ownBuckets", ownBuckets));
+    }
+
+    /**
+     * Условие WHERE для фильтра, совпадающее с
+     * {@link org.petukhov.taskmanager.repository.TaskSpecifications#matching}.
+     */
+    private static String where(TaskFilterDTO filter, LocalDateTime now, Long afterId, Collection<Long> ids,
+                                boolean openOnly, MapSqlParameterSource parameters) {
+        List<String> conditions = new ArrayList<>();
+        if (filter != null) {
+            if (filter.getCompleted() != null) {
+                conditions.add("completed = :completed");
+                parameters.addValue("completed", filter.getCompleted());
+            }
+            if (filter.getDueFrom() != null) {
+                conditions.add("due_date >= :dueFrom");
+                parameters.addValue("dueFrom", filter.getDueFrom());
+            }
+            if (filter.getDueTo() != null) {
+                conditions.add("due_date < :dueTo");
+                parameters.addValue("dueTo", filter.getDueTo());
+            }
+            if (filter.getOverdue() != null) {
+                conditions.add(filter.getOverdue()
+                        ? "(completed = FALSE AND due_date < :now)"
+                        : "(completed = TRUE OR due_date IS NULL OR due_date >= :now)");
+                parameters.addValue("now", now);
+            }
+        }
+        if (afterId != null) {
+            conditions.add("id > :afterId");
+            parameters.addValue("afterId", afterId);
+        }
+        if (ids != null) {
+            conditions.add("id IN (:ids)");
+            parameters.addValue("ids", ids);
+        }
+        if (openOnly) {
+            conditions.add("completed = FALSE");
+        }
+        return conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+    }
+}
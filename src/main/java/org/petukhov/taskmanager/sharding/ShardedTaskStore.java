@@ -0,0 +1,224 @@
+package org.petukhov.taskmanager.sharding;
+
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.petukhov.taskmanager.entity.Task;
+import org.petukhov.taskmanager.exception.InvalidRequestException;
+import org.petukhov.taskmanager.repository.TaskChunk;
+import org.petukhov.taskmanager.repository.TaskChunkQuery;
+import org.petukhov.taskmanager.repository.TaskMutation;
+import org.petukhov.taskmanager.repository.TaskSearchHit;
+import org.petukhov.taskmanager.repository.TaskSpecifications;
+import org.petukhov.taskmanager.repository.TaskStatements;
+import org.petukhov.taskmanager.repository.TaskStatsCount;
+import org.petukhov.taskmanager.repository.TaskStore;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Хранилище задач, распределенных по шардам.
+ * <p>
+ * Операции над одной задачей выполняются в шарде, которому принадлежит ее ID,
+ * одним запросом без транзакции. Новые задачи одного пакета получают ID из одной
+ * корзины и сохраняются в ее шард одной транзакцией. Списки читаются со всех шардов
+ * параллельно, не больше task-manager.sharding.parallelism запросов одновременно,
+ * и объединяются в порядке ID. Все операции выполняются под общей блокировкой
+ * шардов, поэтому не пересекаются с переносом корзин.
+ * <p>
+ * Изменение фиксируется в шарде до возврата из метода, то есть раньше, чем
+ * транзакция основной базы данных, в которой сервис записывает статистику и outbox.
+ */
+public class ShardedTaskStore implements TaskStore {
+
+    private static final Comparator<TaskSearchHit> SEARCH_ORDER = Comparator
+            .comparing(TaskSearchHit::rank, Comparator.reverseOrder())
+            .thenComparing(hit -> hit.task().getId());
+
+    private final TaskShards shards;
+    private final ShardedTaskRepository repository;
+
+    public ShardedTaskStore(TaskShards shards, ShardedTaskRepository repository) {
+        this.shards = shards;
+        this.repository = repository;
+    }
+
+    @Override
+    public Task save(Task task) {
+        return saveAll(List.of(task)).get(0);
+    }
+
+    @Override
+    public List<Task> saveAll(List<Task> tasks) {
+        return shards.guarded(() -> {
+            int bucket = shards.nextBucket();
+            for (Task task : tasks) {
+                task.setId(shards.nextId(bucket));
+            }
+            TaskShard shard = shards.ownerOf(bucket);
+            shard.getTransactionTemplate().executeWithoutResult(status -> repository.insert(shard, tasks));
+            return tasks;
+        });
+    }
+
+    @Override
+    public Optional<Task> findById(Long id) {
+        return shards.guarded(() -> repository.findById(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return shards.guarded(() -> repository.existsById(id));
+    }
+
+    @Override
+    public Optional<Long> findVersionById(Long id) {
+        return shards.guarded(() -> repository.findVersionById(id));
+    }
+
+    @Override
+    public List<Task> findAllById(Collection<Long> ids) {
+        return shards.guarded(() -> repository.findAllById(ids));
+    }
+
+    /**
+     * Каждый шард возвращает первые pageNumber * pageSize задач, поэтому стоимость
+     * запроса растет с номером страницы.
+     *
+     * @throws InvalidRequestException Если страница находится слишком далеко от начала списка.
+     */
+    @Override
+    public List<Task> findPage(TaskFilterDTO filter, int pageNumber, int pageSize) {
+        long limit = (long) pageNumber * pageSize;
+        if (limit > Integer.MAX_VALUE) {
+            throw new InvalidRequestException("Страница " + pageNumber + " недоступна, используйте чтение по курсору");
+        }
+        List<Task> tasks = findMerged(filter, null, (int) limit);
+        int from = (pageNumber - 1) * pageSize;
+        return from >= tasks.size() ? List.of() : tasks.subList(from, tasks.size());
+    }
+
+    @Override
+    public Slice<Task> findAfter(TaskFilterDTO filter, Long afterId, int pageSize) {
+        List<Task> tasks = findMerged(filter, afterId, pageSize + 1);
+        boolean hasNext = tasks.size() > pageSize;
+        return new SliceImpl<>(hasNext ? tasks.subList(0, pageSize) : tasks, PageRequest.of(0, pageSize), hasNext);
+    }
+
+    /**
+     * Первые limit задач всех шардов после afterId в порядке ID.
+     */
+    private List<Task> findMerged(TaskFilterDTO filter, Long afterId, int limit) {
+        TaskFilterDTO criteria = TaskSpecifications.hasCriteria(filter) ? filter : null;
+        LocalDateTime now = LocalDateTime.now();
+        List<List<Task>> slices = shards.guarded(() -> shards.scatter(shard ->
+                repository.findSlice(shard, criteria, now, afterId, limit)));
+        return slices.stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Task::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<TaskSearchHit> search(String query, Float afterRank, Long afterId, int limit) {
+        List<List<TaskSearchHit>> shardHits = shards.guarded(() -> shards.scatter(shard ->
+                shard.getSearchRepository().search(query, afterRank, afterId, limit)));
+        return shardHits.stream()
+                .flatMap(List::stream)
+                .sorted(SEARCH_ORDER)
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Шарды читаются по очереди, внутри шарда задачи упорядочены по ID.
+     */
+    @Override
+    public void forEach(Consumer<Task> consumer) {
+        shards.guarded(() -> {
+            for (TaskShard shard : shards.all()) {
+                shard.getTransactionTemplate().executeWithoutResult(status -> repository.forEach(shard, consumer));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Optional<TaskMutation> updateTask(Long id, Long expectedVersion, String title, String description,
+                                             LocalDateTime dueDate, boolean completed) {
+        return inTaskShard(id, statements ->
+                statements.updateTask(id, expectedVersion, title, description, dueDate, completed));
+    }
+
+    @Override
+    public Optional<TaskMutation> updateFields(Long id, Long expectedVersion, Map<String, Object> fields) {
+        return inTaskShard(id, statements -> statements.updateFields(id, expectedVersion, fields));
+    }
+
+    @Override
+    public Optional<TaskMutation> completeTask(Long id) {
+        return inTaskShard(id, statements -> statements.completeTask(id));
+    }
+
+    @Override
+    public Optional<TaskMutation> deleteTaskById(Long id) {
+        return inTaskShard(id, statements -> statements.deleteTaskById(id));
+    }
+
+    @Override
+    public TaskChunk completeChunk(TaskChunkQuery query) {
+        return applyToChunk(query, true, TaskStatements::completeTasksByIds);
+    }
+
+    @Override
+    public TaskChunk deleteChunk(TaskChunkQuery query) {
+        return applyToChunk(query, false, TaskStatements::deleteTasksByIds);
+    }
+
+    /**
+     * Количество задач всех шардов по дням срока и признаку выполнения.
+     */
+    @Override
+    public List<TaskStatsCount> countByDueDayAndCompleted() {
+        return shards.guarded(repository::countByDueDayAndCompleted);
+    }
+
+    private <T> T inTaskShard(Long id, Function<TaskStatements, T> statement) {
+        return shards.guarded(() -> statement.apply(shards.shardOf(id).getStatements()));
+    }
+
+    /**
+     * Выбор первых limit ID порции со всех шардов, где могут находиться задачи,
+     * и выполнение над ними запроса в каждом из шардов.
+     */
+    private TaskChunk applyToChunk(TaskChunkQuery query, boolean openOnly,
+                                   BiFunction<TaskStatements, List<Long>, List<TaskMutation>> statement) {
+        return shards.guarded(() -> {
+            Map<TaskShard, List<Long>> candidates = query.ids() == null ? null : repository.groupByShard(query.ids());
+            Collection<TaskShard> targets = candidates == null ? shards.all() : candidates.keySet();
+            List<Long> ids = shards.scatter(targets, shard -> repository.findIds(shard, query.filter(), query.now(),
+                            query.afterId(), candidates == null ? null : candidates.get(shard), openOnly, query.limit()))
+                    .stream()
+                    .flatMap(List::stream)
+                    .sorted()
+                    .limit(query.limit())
+                    .toList();
+            List<TaskMutation> mutations = new ArrayList<>(ids.size());
+            for (Map.Entry<TaskShard, List<Long>> shardIds : repository.groupByShard(ids).entrySet()) {
+                mutations.addAll(statement.apply(shardIds.getKey().getStatements(), shardIds.getValue()));
+            }
+            return new TaskChunk(ids, mutations);
+        });
+    }
+}
@@ -0,0 +1,37 @@
+package org.petukhov.taskmanager.sharding;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+import java.util.Map;
+
+/**
+ * Эндпоинт /actuator/shards: распределение корзин между шардами
+ * и запуск их перераспределения.
+ */
+@Endpoint(id = "shards")
+public class ShardsEndpoint {
+
+    private final TaskShardRebalancer rebalancer;
+
+    public ShardsEndpoint(TaskShardRebalancer rebalancer) {
+        this.rebalancer = rebalancer;
+    }
+
+    /**
+     * Количество корзин у каждого шарда.
+     */
+    @ReadOperation
+    public Map<String, Integer> distribution() {
+        return rebalancer.distribution();
+    }
+
+    /**
+     * Выравнивание числа корзин между шардами.
+     */
+    @WriteOperation
+    public ShardRebalanceResult rebalance() {
+        return rebalancer.rebalance();
+    }
+}
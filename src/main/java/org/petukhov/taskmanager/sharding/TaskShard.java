@@ -0,0 +1,42 @@
+package org.petukhov.taskmanager.sharding;
+
+import lombok.Getter;
+import org.petukhov.taskmanager.repository.TaskRepository;
+import org.petukhov.taskmanager.repository.TaskSearchRepository;
+import org.petukhov.taskmanager.repository.TaskStatements;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Одна из баз данных, по которым распределены задачи.
+ */
+@Getter
+public final class TaskShard {
+
+    private final int index;
+    private final DataSource dataSource;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskSearchRepository searchRepository;
+    private final TaskStatements statements;
+
+    public TaskShard(int index, DataSource dataSource) {
+        this.index = index;
+        this.dataSource = dataSource;
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.setFetchSize(Integer.parseInt(TaskRepository.STREAM_FETCH_SIZE));
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(template);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        this.searchRepository = new TaskSearchRepository(jdbcTemplate);
+        this.statements = new TaskStatements(jdbcTemplate);
+    }
+
+    @Override
+    public String toString() {
+        return "shard-" + index;
+    }
+}
@@ -0,0 +1,151 @@
+package org.petukhov.taskmanager.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.petukhov.taskmanager.entity.Task;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Перераспределение корзин между шардами, например после добавления шарда.
+ * <p>
+ * Каждому шарду положено buckets / N корзин (первым buckets mod N шардам - на одну больше).
+ * Переносятся только корзины шардов, у которых их больше положенного, в шарды,
+ * у которых меньше. Перенос корзины выполняется под исключительной блокировкой:
+ * задачи копируются в новый шард порциями, корзина передается ему, затем задачи
+ * удаляются из старого шарда. Если перенос прервался, при следующем запуске
+ * остатки корзины удаляются из шарда, которому она не принадлежит.
+ * <p>
+ * Перераспределение и перенос выполняются через {@link TaskShards#rebalancing}, поэтому
+ * остатки и переносы вычисляются по распределению, записанному в базе данных,
+ * а не по прочитанному этим экземпляром при запуске.
+ */
+@Slf4j
+public class TaskShardRebalancer {
+
+    private static final int COPY_CHUNK_SIZE = 500;
+
+    private final TaskShards shards;
+    private final ShardedTaskRepository repository;
+
+    public TaskShardRebalancer(TaskShards shards, ShardedTaskRepository repository) {
+        this.shards = shards;
+        this.repository = repository;
+    }
+
+    /**
+     * Количество корзин у каждого шарда.
+     */
+    public Map<String, Integer> distribution() {
+        Map<String, Integer> distribution = new TreeMap<>();
+        shards.all().forEach(shard -> distribution.put(shard.toString(), 0));
+        for (int owner : shards.owners()) {
+            distribution.merge(shards.get(owner).toString(), 1, Integer::sum);
+        }
+        return distribution;
+    }
+
+    /**
+     * Выравнивание числа корзин между шардами с минимальным числом переносов.
+     *
+     * @return Количество перенесенных корзин и задач.
+     */
+    public ShardRebalanceResult rebalance() {
+        return shards.rebalancing(this::rebalanceLatest);
+    }
+
+    private ShardRebalanceResult rebalanceLatest() {
+        removeStrayTasks();
+        int[] owners = shards.owners();
+        int shardCount = shards.size();
+        List<Deque<Integer>> owned = new ArrayList<>(shardCount);
+        for (int i = 0; i < shardCount; i++) {
+            owned.add(new ArrayDeque<>());
+        }
+        for (int bucket = 0; bucket < owners.length; bucket++) {
+            owned.get(owners[bucket]).add(bucket);
+        }
+
+        Deque<Integer> surplus = new ArrayDeque<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            Deque<Integer> buckets = owned.get(shard);
+            while (buckets.size() > quota(shard)) {
+                surplus.add(buckets.pollLast());
+            }
+        }
+        int bucketsMoved = 0;
+        long tasksMoved = 0;
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int missing = quota(shard) - owned.get(shard).size(); missing > 0; missing--) {
+                tasksMoved += moveBucket(surplus.poll(), shard);
+                bucketsMoved++;
+            }
+        }
+        log.info("Перераспределение корзин завершено: перенесено {} корзин, {} задач", bucketsMoved, tasksMoved);
+        return new ShardRebalanceResult(bucketsMoved, tasksMoved);
+    }
+
+    /**
+     * Перенос корзины в указанный шард.
+     *
+     * @return Количество перенесенных задач.
+     */
+    public long moveBucket(int bucket, int targetIndex) {
+        return shards.rebalancing(() -> shards.exclusive(() -> {
+            TaskShard source = shards.ownerOf(bucket);
+            TaskShard target = shards.get(targetIndex);
+            if (source == target) {
+                return 0L;
+            }
+            repository.deleteBucket(target, bucket);
+
+            long copied = 0;
+            long afterId = Long.MIN_VALUE;
+            while (true) {
+                List<Task> chunk = repository.findBucketSlice(source, bucket, afterId, COPY_CHUNK_SIZE);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                target.getTransactionTemplate().executeWithoutResult(status -> repository.insert(target, chunk));
+                copied += chunk.size();
+                afterId = chunk.get(chunk.size() - 1).getId();
+            }
+            shards.assign(bucket, targetIndex);
+            repository.deleteBucket(source, bucket);
+            log.debug("Корзина {} перенесена из {} в {}: {} задач", bucket, source, target, copied);
+            return copied;
+        }));
+    }
+
+    /**
+     * Удаление из шардов задач корзин, которые им не принадлежат,
+     * оставшихся после прерванного переноса.
+     */
+    private void removeStrayTasks() {
+        shards.exclusive(() -> {
+            int[] owners = shards.owners();
+            for (TaskShard shard : shards.all()) {
+                List<Integer> ownBuckets = new ArrayList<>();
+                for (int bucket = 0; bucket < owners.length; bucket++) {
+                    if (owners[bucket] == shard.getIndex()) {
+                        ownBuckets.add(bucket);
+                    }
+                }
+                int removed = repository.deleteForeignBuckets(shard, ownBuckets);
+                if (removed > 0) {
+                    log.warn("Из {} удалено {} задач корзин, принадлежащих другим шардам", shard, removed);
+                }
+            }
+            return null;
+        });
+    }
+
+    private int quota(int shard) {
+        int base = shards.bucketCount() / shards.size();
+        return shard < shards.bucketCount() % shards.size() ? base + 1 : base;
+    }
+}
@@ -0,0 +1,326 @@
+package org.petukhov.taskmanager.sharding;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.jdbc.support.incrementer.DataFieldMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.H2SequenceMaxValueIncrementer;
+import org.springframework.jdbc.support.incrementer.PostgresSequenceMaxValueIncrementer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Распределение задач по шардам.
+ * <p>
+ * Задача с ID id лежит в корзине id mod buckets, а корзина принадлежит одному шарду.
+ * Распределение корзин хранится в таблице task_shard_buckets первого шарда и при
+ * первом запуске задается по кругу. ID выдаются из последовательности первого шарда
+ * блоками по {@value #ID_BLOCK_SIZE} и содержат номер корзины, поэтому новую задачу
+ * можно сразу создать в нужном шарде, а шард существующей определяется по ID без запросов.
+ * <p>
+ * Операции над задачами выполняются под общей блокировкой, а перенос корзины между
+ * шардами - под исключительной, поэтому во время переноса задачи корзины не видны
+ * одновременно в двух шардах.
+ * <p>
+ * Перераспределения корзин, запущенные в разных экземплярах приложения, выполняются
+ * по очереди под блокировкой строки task_shard_lock первого шарда и начинаются
+ * с перечитывания распределения. Остальные экземпляры продолжают направлять запросы
+ * по распределению, прочитанному при запуске, поэтому после перераспределения
+ * их необходимо перезапустить.
+ */
+@Slf4j
+public class TaskShards implements AutoCloseable {
+
+    public static final int HOME_SHARD = 0;
+
+    /**
+     * Совпадает с INCREMENT BY последовательности task_shard_id_seq.
+     */
+    private static final int ID_BLOCK_SIZE = 50;
+    private static final String ID_SEQUENCE = "task_shard_id_seq";
+
+    private final List<TaskShard> shards;
+    private final int bucketCount;
+    private final ExecutorService executor;
+    private final DataFieldMaxValueIncrementer idSequence;
+    private final ReentrantReadWriteLock moveLock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+    private final AtomicInteger nextBucket = new AtomicInteger();
+
+    private volatile int[] owners;
+    private long nextIdValue;
+    private long idValueLimit;
+
+    public TaskShards(List<TaskShard> shards, int bucketCount, int parallelism) {
+        this.shards = List.copyOf(shards);
+        this.bucketCount = bucketCount;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "task-shard-query-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.idSequence = idSequence(home().getDataSource());
+        this.owners = loadOwners();
+        createRebalanceLock();
+    }
+
+    public int size() {
+        return shards.size();
+    }
+
+    public int bucketCount() {
+        return bucketCount;
+    }
+
+    public List<TaskShard> all() {
+        return shards;
+    }
+
+    public TaskShard get(int index) {
+        return shards.get(index);
+    }
+
+    public TaskShard home() {
+        return shards.get(HOME_SHARD);
+    }
+
+    public int bucketOf(long taskId) {
+        return (int) Math.floorMod(taskId, (long) bucketCount);
+    }
+
+    public TaskShard shardOf(long taskId) {
+        return ownerOf(bucketOf(taskId));
+    }
+
+    public TaskShard ownerOf(int bucket) {
+        return shards.get(owners[bucket]);
+    }
+
+    /**
+     * Копия распределения: номер шарда для каждой корзины.
+     */
+    public int[] owners() {
+        return owners.clone();
+    }
+
+    /**
+     * Корзина для новых задач. Корзины выбираются по кругу, поэтому задачи
+     * распределяются между шардами пропорционально числу их корзин.
+     */
+    public int nextBucket() {
+        return Math.floorMod(nextBucket.getAndIncrement(), bucketCount);
+    }
+
+    /**
+     * Новый ID задачи в указанной корзине.
+     */
+    public long nextId(int bucket) {
+        return nextIdValue() * bucketCount + bucket;
+    }
+
+    private synchronized long nextIdValue() {
+        if (nextIdValue == idValueLimit) {
+            nextIdValue = idSequence.nextLongValue();
+            idValueLimit = nextIdValue + ID_BLOCK_SIZE;
+        }
+        return nextIdValue++;
+    }
+
+    /**
+     * Выполнение операции над задачами. Операции выполняются одновременно,
+     * но не во время переноса корзины.
+     */
+    public <T> T guarded(Supplier<T> operation) {
+        return locked(moveLock.readLock(), operation);
+    }
+
+    /**
+     * Выполнение переноса корзины, пока операции над задачами ожидают.
+     */
+    public <T> T exclusive(Supplier<T> operation) {
+        return locked(moveLock.writeLock(), operation);
+    }
+
+    /**
+     * Выполнение перераспределения корзин. На время операции в первом шарде блокируется
+     * строка task_shard_lock, и перед операцией распределение перечитывается из
+     * task_shard_buckets: другой экземпляр приложения мог перенести корзины после того,
+     * как распределение было прочитано здесь. Блокировка удерживается отдельным
+     * соединением, поэтому изменения в шардах во время операции фиксируются сразу.
+     */
+    public <T> T rebalancing(Supplier<T> operation) {
+        if (rebalanceLock.isHeldByCurrentThread()) {
+            return operation.get();
+        }
+        rebalanceLock.lock();
+        try (Connection connection = home().getDataSource().getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                new JdbcTemplate(new SingleConnectionDataSource(connection, true))
+                        .queryForList("SELECT id FROM task_shard_lock WHERE id = 1 FOR UPDATE", Integer.class);
+                int[] latest = loadOwners();
+                exclusive(() -> owners = latest);
+                return operation.get();
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось заблокировать распределение корзин", e);
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    private static <T> T locked(Lock lock, Supplier<T> operation) {
+        lock.lock();
+        try {
+            return operation.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Выполнение запроса к каждому из шардов, не больше parallelism запросов одновременно.
+     *
+     * @return Результаты в порядке шардов.
+     */
+    public <T> List<T> scatter(Function<TaskShard, T> query) {
+        return scatter(shards, query);
+    }
+
+    /**
+     * Выполнение запроса к указанным шардам, не больше parallelism запросов одновременно.
+     *
+     * @return Результаты в порядке шардов.
+     */
+    public <T> List<T> scatter(Collection<TaskShard> targets, Function<TaskShard, T> query) {
+        if (targets.size() == 1) {
+            return List.of(query.apply(targets.iterator().next()));
+        }
+        List<Future<T>> futures = new ArrayList<>(targets.size());
+        for (TaskShard shard : targets) {
+            futures.add(executor.submit(() -> query.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Запрос к шардам прерван", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return results;
+    }
+
+    /**
+     * Передача корзины другому шарду. Вызывается после копирования задач корзины.
+     */
+    void assign(int bucket, int shard) {
+        home().getJdbcTemplate().getJdbcTemplate()
+                .update("UPDATE task_shard_buckets SET shard = ? WHERE bucket = ?", shard, bucket);
+        int[] updated = owners.clone();
+        updated[bucket] = shard;
+        owners = updated;
+    }
+
+    private void createRebalanceLock() {
+        JdbcTemplate template = home().getJdbcTemplate().getJdbcTemplate();
+        if (template.queryForList("SELECT id FROM task_shard_lock WHERE id = 1", Integer.class).isEmpty()) {
+            try {
+                template.update("INSERT INTO task_shard_lock (id) VALUES (1)");
+            } catch (DuplicateKeyException e) {
+                log.debug("Строка task_shard_lock создана другим экземпляром приложения");
+            }
+        }
+    }
+
+    private int[] loadOwners() {
+        int[] loaded = new int[bucketCount];
+        Arrays.fill(loaded, -1);
+        List<int[]> rows = home().getJdbcTemplate().getJdbcTemplate().query(
+                "SELECT bucket, shard FROM task_shard_buckets",
+                (resultSet, rowNum) -> new int[]{resultSet.getInt("bucket"), resultSet.getInt("shard")});
+        if (rows.isEmpty()) {
+            List<Object[]> assignments = new ArrayList<>(bucketCount);
+            for (int bucket = 0; bucket < bucketCount; bucket++) {
+                loaded[bucket] = bucket % shards.size();
+                assignments.add(new Object[]{bucket, loaded[bucket]});
+            }
+            home().getJdbcTemplate().getJdbcTemplate()
+                    .batchUpdate("INSERT INTO task_shard_buckets (bucket, shard) VALUES (?, ?)", assignments);
+            log.info("Корзины задач распределены между {} шардами", shards.size());
+            return loaded;
+        }
+        for (int[] row : rows) {
+            if (row[0] < 0 || row[0] >= bucketCount || row[1] < 0 || row[1] >= shards.size()) {
+                throw new IllegalStateException("Распределение корзин в task_shard_buckets не соответствует "
+                        + "настройкам: корзина " + row[0] + ", шард " + row[1]);
+            }
+            loaded[row[0]] = row[1];
+        }
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            if (loaded[bucket] < 0) {
+                throw new IllegalStateException("Корзина " + bucket + " не распределена: число корзин "
+                        + "task-manager.sharding.buckets не может изменяться после первого запуска");
+            }
+        }
+        return loaded;
+    }
+
+    private static DataFieldMaxValueIncrementer idSequence(DataSource dataSource) {
+        String product;
+        try {
+            product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Не удалось определить тип базы данных шарда", e);
+        }
+        if ("PostgreSQL".equalsIgnoreCase(product)) {
+            return new PostgresSequenceMaxValueIncrementer(dataSource, ID_SEQUENCE);
+        }
+        if ("H2".equalsIgnoreCase(product)) {
+            return new H2SequenceMaxValueIncrementer(dataSource, ID_SEQUENCE);
+        }
+        throw new IllegalStateException("Шардирование не поддерживает базу данных " + product);
+    }
+
+    @Override
+    public void close() throws Exception {
+        executor.shutdownNow();
+        for (TaskShard shard : shards) {
+            if (shard.getDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -1,11 +1,11 @@
 -- liquibase formatted sql
 
--- changeset YuriPetukhov:1
+-- changeset YuriPetukhov:1 dbms:postgresql
 
-CREATE TABLE tasks (
+CREATE TABLE IF NOT EXISTS tasks (
     id BIGSERIAL PRIMARY KEY,
     title VARCHAR(20) NOT NULL,
     description VARCHAR(255),
     due_date TIMESTAMP NOT NULL,
     completed BOOLEAN DEFAULT false
-);
\ No newline at end of file
+);
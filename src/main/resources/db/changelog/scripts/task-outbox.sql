@@ -0,0 +1,17 @@
+-- liquibase formatted sql
+
+-- changeset YuriPetukhov:7 dbms:postgresql
+
+CREATE SEQUENCE IF NOT EXISTS task_outbox_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS task_outbox (
+    id BIGINT PRIMARY KEY,
+    task_id BIGINT NOT NULL,
+    change_type VARCHAR(16) NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+    feed_position BIGINT
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_task_outbox_feed_position ON task_outbox (feed_position);
+
+CREATE INDEX IF NOT EXISTS idx_task_outbox_unpublished ON task_outbox (id) WHERE feed_position IS NULL;
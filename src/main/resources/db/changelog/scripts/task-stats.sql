@@ -0,0 +1,12 @@
+-- liquibase formatted sql
+
+-- changeset YuriPetukhov:8 dbms:postgresql
+
+CREATE SEQUENCE IF NOT EXISTS task_stats_id_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS task_stats (
+    id BIGINT PRIMARY KEY,
+    due_day DATE,
+    completed BOOLEAN NOT NULL,
+    task_count BIGINT NOT NULL
+);
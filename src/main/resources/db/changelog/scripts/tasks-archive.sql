@@ -0,0 +1,13 @@
+-- liquibase formatted sql
+
+-- changeset YuriPetukhov:6 dbms:postgresql
+
+CREATE TABLE IF NOT EXISTS tasks_archive (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(20) NOT NULL,
+    description VARCHAR(255),
+    due_date TIMESTAMP NOT NULL,
+    completed BOOLEAN NOT NULL,
+    version BIGINT NOT NULL,
+    archived_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,7 @@
+-- liquibase formatted sql
+
+-- changeset YuriPetukhov:3 dbms:postgresql
+
+CREATE INDEX IF NOT EXISTS idx_tasks_completed_due_date ON tasks (completed, due_date);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_open_due_date ON tasks (due_date) WHERE completed = false;
@@ -0,0 +1,7 @@
+-- liquibase formatted sql
+
+-- changeset YuriPetukhov:2 dbms:postgresql
+
+CREATE SEQUENCE IF NOT EXISTS tasks_id_seq;
+
+ALTER SEQUENCE tasks_id_seq INCREMENT BY 50;
@@ -0,0 +1,5 @@
+-- liquibase formatted sql
+
+-- changeset YuriPetukhov:5 dbms:postgresql
+
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,21 @@
+CREATE TABLE IF NOT EXISTS tasks (
+    id BIGINT PRIMARY KEY,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    due_date TIMESTAMP,
+    completed BOOLEAN NOT NULL DEFAULT FALSE,
+    version BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_tasks_completed_due_date ON tasks (completed, due_date);
+
+CREATE TABLE IF NOT EXISTS task_shard_buckets (
+    bucket INT PRIMARY KEY,
+    shard INT NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS task_shard_lock (
+    id INT PRIMARY KEY
+);
+
+CREATE SEQUENCE IF NOT EXISTS task_shard_id_seq INCREMENT BY 50;
@@ -0,0 +1,108 @@
+package org.petukhov.taskmanager.reactive.service.impl;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.exception.InvalidRequestException;
+import org.petukhov.taskmanager.exception.TaskNotFoundException;
+import org.petukhov.taskmanager.reactive.entity.TaskRow;
+import org.petukhov.taskmanager.reactive.mapper.ReactiveTaskMapper;
+import org.petukhov.taskmanager.reactive.mapper.ReactiveTaskMapperImpl;
+import org.petukhov.taskmanager.reactive.repository.ReactiveTaskRepository;
+import org.petukhov.taskmanager.service.impl.TaskCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.core.ReactiveSelectOperation;
+import org.springframework.data.relational.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTaskServiceImplTest {
+    @Mock
+    private ReactiveTaskRepository taskRepository;
+    @Mock
+    private R2dbcEntityTemplate entityTemplate;
+    @Mock
+    private ReactiveSelectOperation.ReactiveSelect<TaskRow> select;
+    @Mock
+    private ReactiveSelectOperation.TerminatingSelect<TaskRow> terminatingSelect;
+    @Spy
+    private ReactiveTaskMapper taskMapper = new ReactiveTaskMapperImpl();
+
+    @InjectMocks
+    private ReactiveTaskServiceImpl taskService;
+
+    private static TaskRow taskRow(long id) {
+        return new TaskRow(id, "Task " + id, "Description " + id, LocalDateTime.now().plusDays(1), false, 0L);
+    }
+
+    @Test
+    @DisplayName("Test getting task info - successful")
+    void getTaskInfo() {
+        when(taskRepository.findById(1L)).thenReturn(Mono.just(taskRow(1)));
+
+        StepVerifier.create(taskService.getTaskInfo(1L))
+                .assertNext(taskInfoDTO -> {
+                    assertEquals(1L, taskInfoDTO.getTaskId());
+                    assertEquals("Task 1", taskInfoDTO.getTitle());
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test getting task info - unsuccessful when task not found")
+    void getTaskInfo_Unsuccessful() {
+        when(taskRepository.findById(1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(taskService.getTaskInfo(1L))
+                .verifyError(TaskNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Test getting tasks after cursor - next cursor points to last task")
+    void getTasksAfter() {
+        when(entityTemplate.select(TaskRow.class)).thenReturn(select);
+        when(select.matching(any(Query.class))).thenReturn(terminatingSelect);
+        when(terminatingSelect.all()).thenReturn(Flux.just(taskRow(11), taskRow(12), taskRow(13)));
+
+        StepVerifier.create(taskService.getTasksAfter(null, TaskCursor.encode(10L), 2))
+                .assertNext(slice -> {
+                    assertEquals(2, slice.getTasks().size());
+                    assertEquals(12L, TaskCursor.decode(slice.getNextCursor()));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("Test getting tasks after cursor - unsuccessful when cursor is malformed")
+    void getTasksAfter_InvalidCursor() {
+        StepVerifier.create(taskService.getTasksAfter(null, "not a cursor", 10))
+                .verifyError(InvalidRequestException.class);
+        verify(entityTemplate, never()).select(TaskRow.class);
+    }
+
+    @Test
+    @DisplayName("Test exporting tasks - tasks emitted on demand in ID order")
+    void exportTasks() {
+        when(taskRepository.findAll(any(Sort.class))).thenReturn(Flux.range(1, 3).map(id -> taskRow(id)));
+
+        StepVerifier.create(taskService.exportTasks(), 1)
+                .assertNext(taskInfoDTO -> assertEquals(1L, taskInfoDTO.getTaskId()))
+                .thenRequest(2)
+                .expectNextMatches(taskInfoDTO -> taskInfoDTO.getTaskId() == 2L)
+                .expectNextMatches(taskInfoDTO -> taskInfoDTO.getTaskId() == 3L)
+                .verifyComplete();
+    }
+}
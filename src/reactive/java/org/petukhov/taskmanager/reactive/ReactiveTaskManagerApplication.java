@@ -0,0 +1,29 @@
+package org.petukhov.taskmanager.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Реактивный вариант API задач на WebFlux и R2DBC.
+ * Собирается профилем Maven reactive и запускается с профилем Spring reactive,
+ * поэтому не мешает основному приложению на Spring MVC и JPA.
+ */
+@Profile(ReactiveTaskManagerApplication.PROFILE)
+@SpringBootApplication(
+        scanBasePackages = {"org.petukhov.taskmanager.reactive", "org.petukhov.taskmanager.exception"},
+        exclude = {DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class})
+public class ReactiveTaskManagerApplication {
+
+    public static final String PROFILE = "reactive";
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveTaskManagerApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles(PROFILE)
+                .run(args);
+    }
+}
@@ -0,0 +1,94 @@
+package org.petukhov.taskmanager.reactive.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.petukhov.taskmanager.controller.TaskController;
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.exception.InvalidRequestException;
+import org.petukhov.taskmanager.reactive.ReactiveTaskManagerApplication;
+import org.petukhov.taskmanager.reactive.service.ReactiveTaskService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Реактивный контроллер для чтения задач.
+ * Пути, параметры и форма ответов совпадают с TaskController.
+ */
+@RestController
+@RequestMapping("/tasks")
+@Profile(ReactiveTaskManagerApplication.PROFILE)
+@RequiredArgsConstructor
+@Tag(name = "Задачи (реактивный API)")
+public class ReactiveTaskController {
+
+    private final ReactiveTaskService taskService;
+
+    /**
+     * Получение информации по задаче по ее ID.
+     * В заголовке ETag возвращается версия задачи, как в TaskController. Если она
+     * совпадает со значением заголовка If-None-Match, возвращается 304 Not Modified.
+     *
+     * @param taskId ID задачи.
+     * @return 200 OK, если задача найдена, или 304 Not Modified, если она не изменилась.
+     */
+    @GetMapping("/{taskId}")
+    @Operation(summary = "Получить информацию по задаче по ее ID")
+    public Mono<ResponseEntity<TaskInfoDTO>> getTaskInfo(@PathVariable Long taskId) {
+        return taskService.getTaskInfo(taskId)
+                .map(taskInfoDTO -> ResponseEntity.ok()
+                        .eTag("\"" + taskInfoDTO.getVersion() + "\"")
+                        .body(taskInfoDTO));
+    }
+
+    /**
+     * Получение информации по всем задачам.
+     * Если номер страницы не указан, задачи читаются по курсору:
+     * курсор следующей порции возвращается в заголовке X-Next-Cursor.
+     * При запросе в формате application/x-ndjson страница передается потоком.
+     *
+     * @param pageNumber Номер страницы.
+     * @param pageSize   Размер страницы.
+     * @param after      Курсор, полученный с предыдущей порцией.
+     * @param filter     Условия отбора задач: completed, dueFrom, dueTo, overdue.
+     * @return 200 OK, если задачи найдены.
+     */
+    @GetMapping
+    @Operation(summary = "Получить информацию по всем задачам")
+    public Mono<ResponseEntity<Flux<TaskInfoDTO>>> getAllTasks(@RequestParam(value = "page", required = false) Integer pageNumber,
+                                                               @RequestParam(value = "size") Integer pageSize,
+                                                               @RequestParam(value = "after", required = false) String after,
+                                                               TaskFilterDTO filter) {
+        if (pageNumber != null) {
+            if (after != null) {
+                return Mono.error(new InvalidRequestException("Параметры page и after нельзя указывать одновременно"));
+            }
+            return Mono.just(ResponseEntity.ok(taskService.getAllTasks(filter, pageNumber, pageSize)));
+        }
+        return taskService.getTasksAfter(filter, after, pageSize)
+                .map(slice -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (slice.getNextCursor() != null) {
+                        response.header(TaskController.NEXT_CURSOR_HEADER, slice.getNextCursor());
+                    }
+                    return response.body(Flux.fromIterable(slice.getTasks()));
+                });
+    }
+
+    /**
+     * Выгрузка всех задач в формате NDJSON.
+     * Задачи читаются из базы данных по мере того, как клиент принимает ответ.
+     *
+     * @return 200 OK с потоком задач, по одной на строку.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Выгрузка всех задач в формате NDJSON")
+    public Flux<TaskInfoDTO> exportTasks() {
+        return taskService.exportTasks();
+    }
+}
@@ -0,0 +1,26 @@
+package org.petukhov.taskmanager.reactive.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Строка таблицы tasks для чтения через R2DBC.
+ */
+@Table("tasks")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TaskRow {
+    @Id
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime dueDate;
+    private boolean completed;
+    private long version;
+}
@@ -0,0 +1,12 @@
+package org.petukhov.taskmanager.reactive.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.reactive.entity.TaskRow;
+
+@Mapper(componentModel = "spring")
+public interface ReactiveTaskMapper {
+    @Mapping(source = "id", target = "taskId")
+    TaskInfoDTO toTaskInfoDTO(TaskRow taskRow);
+}
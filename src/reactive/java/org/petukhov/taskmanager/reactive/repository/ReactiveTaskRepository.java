@@ -0,0 +1,7 @@
+package org.petukhov.taskmanager.reactive.repository;
+
+import org.petukhov.taskmanager.reactive.entity.TaskRow;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+
+public interface ReactiveTaskRepository extends R2dbcRepository<TaskRow, Long> {
+}
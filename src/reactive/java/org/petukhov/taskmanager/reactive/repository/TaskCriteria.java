@@ -0,0 +1,59 @@
+package org.petukhov.taskmanager.reactive.repository;
+
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.springframework.data.relational.core.query.Criteria;
+
+import java.time.LocalDateTime;
+
+/**
+ * Условия отбора задач для запросов через R2DBC.
+ * Совпадают с условиями TaskSpecifications основного приложения.
+ */
+public final class TaskCriteria {
+
+    private TaskCriteria() {
+    }
+
+    /**
+     * Задачи, удовлетворяющие фильтру.
+     * Срок задается полуинтервалом [dueFrom, dueTo), просроченной считается
+     * невыполненная задача со сроком раньше текущего момента.
+     *
+     * @param filter Условия отбора задач или null.
+     * @param now    Текущий момент.
+     * @return Условие отбора задач.
+     */
+    public static Criteria matching(TaskFilterDTO filter, LocalDateTime now) {
+        Criteria criteria = Criteria.empty();
+        if (filter == null) {
+            return criteria;
+        }
+        if (filter.getCompleted() != null) {
+            criteria = criteria.and(Criteria.where("completed").is(filter.getCompleted()));
+        }
+        if (filter.getDueFrom() != null) {
+            criteria = criteria.and(Criteria.where("dueDate").greaterThanOrEquals(filter.getDueFrom()));
+        }
+        if (filter.getDueTo() != null) {
+            criteria = criteria.and(Criteria.where("dueDate").lessThan(filter.getDueTo()));
+        }
+        if (filter.getOverdue() != null) {
+            criteria = criteria.and(filter.getOverdue()
+                    ? Criteria.where("completed").isFalse().and("dueDate").lessThan(now)
+                    : Criteria.where("completed").isTrue()
+                            .or("dueDate").isNull()
+                            .or("dueDate").greaterThanOrEquals(now));
+        }
+        return criteria;
+    }
+
+    /**
+     * Задачи с ID больше указанного.
+     *
+     * @param id ID последней прочитанной задачи.
+     * @return Условие отбора задач.
+     */
+    public static Criteria idGreaterThan(Long id) {
+        return Criteria.where("id").greaterThan(id);
+    }
+}
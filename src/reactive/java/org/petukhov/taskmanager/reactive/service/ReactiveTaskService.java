@@ -0,0 +1,18 @@
+package org.petukhov.taskmanager.reactive.service;
+
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.dto.TaskSliceDTO;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTaskService {
+
+    Mono<TaskInfoDTO> getTaskInfo(Long taskId);
+
+    Flux<TaskInfoDTO> getAllTasks(TaskFilterDTO filter, Integer pageNumber, Integer pageSize);
+
+    Mono<TaskSliceDTO> getTasksAfter(TaskFilterDTO filter, String after, Integer pageSize);
+
+    Flux<TaskInfoDTO> exportTasks();
+}
@@ -0,0 +1,125 @@
+package org.petukhov.taskmanager.reactive.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.dto.TaskSliceDTO;
+import org.petukhov.taskmanager.exception.InvalidRequestException;
+import org.petukhov.taskmanager.exception.TaskNotFoundException;
+import org.petukhov.taskmanager.reactive.ReactiveTaskManagerApplication;
+import org.petukhov.taskmanager.reactive.entity.TaskRow;
+import org.petukhov.taskmanager.reactive.mapper.ReactiveTaskMapper;
+import org.petukhov.taskmanager.reactive.repository.ReactiveTaskRepository;
+import org.petukhov.taskmanager.reactive.repository.TaskCriteria;
+import org.petukhov.taskmanager.reactive.service.ReactiveTaskService;
+import org.petukhov.taskmanager.service.impl.TaskCursor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Реализация реактивного сервиса для чтения задач.
+ * Ответы совпадают по форме с ответами TaskServiceImpl.
+ */
+@Service
+@Profile(ReactiveTaskManagerApplication.PROFILE)
+@RequiredArgsConstructor
+public class ReactiveTaskServiceImpl implements ReactiveTaskService {
+
+    private static final Sort BY_ID = Sort.by("id");
+
+    private final ReactiveTaskRepository taskRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+    private final ReactiveTaskMapper taskMapper;
+
+    /**
+     * Получение информации по задаче по ее ID.
+     *
+     * @param taskId ID задачи.
+     * @return Информация о задаче или ошибка TaskNotFoundException, если задача не найдена.
+     */
+    @Override
+    public Mono<TaskInfoDTO> getTaskInfo(Long taskId) {
+        return taskRepository.findById(taskId)
+                .map(taskMapper::toTaskInfoDTO)
+                .switchIfEmpty(Mono.error(() -> new TaskNotFoundException("Задача с ID " + taskId + " не найдена")));
+    }
+
+    /**
+     * Получение информации по задачам, удовлетворяющим фильтру, по номеру страницы.
+     * Задачи передаются по мере чтения из базы данных с учетом запроса подписчика.
+     *
+     * @param filter     Условия отбора задач или null.
+     * @param pageNumber Номер страницы.
+     * @param pageSize   Размер страницы.
+     * @return Поток информации о задачах.
+     */
+    @Override
+    public Flux<TaskInfoDTO> getAllTasks(TaskFilterDTO filter, Integer pageNumber, Integer pageSize) {
+        Query query = Query.query(TaskCriteria.matching(filter, LocalDateTime.now()))
+                .sort(BY_ID)
+                .offset((long) (pageNumber - 1) * pageSize)
+                .limit(pageSize);
+        return entityTemplate.select(TaskRow.class)
+                .matching(query)
+                .all()
+                .map(taskMapper::toTaskInfoDTO);
+    }
+
+    /**
+     * Получение информации по задачам, удовлетворяющим фильтру и следующим за курсором.
+     * Читается на одну задачу больше размера порции, чтобы определить, есть ли следующая порция.
+     *
+     * @param filter   Условия отбора задач или null.
+     * @param after    Курсор, полученный с предыдущей порцией, или null для первой порции.
+     * @param pageSize Размер порции.
+     * @return Порция информации о задачах и курсор следующей порции.
+     */
+    @Override
+    public Mono<TaskSliceDTO> getTasksAfter(TaskFilterDTO filter, String after, Integer pageSize) {
+        Long afterId;
+        try {
+            afterId = after == null ? 0L : TaskCursor.decode(after);
+        } catch (InvalidRequestException e) {
+            return Mono.error(e);
+        }
+        Query query = Query.query(TaskCriteria.matching(filter, LocalDateTime.now())
+                        .and(TaskCriteria.idGreaterThan(afterId)))
+                .sort(BY_ID)
+                .limit(pageSize + 1);
+        return entityTemplate.select(TaskRow.class)
+                .matching(query)
+                .all()
+                .collectList()
+                .map(rows -> toSlice(rows, pageSize));
+    }
+
+    /**
+     * Выгрузка всех задач потоком.
+     * Строки читаются из базы данных по мере того, как клиент принимает ответ.
+     *
+     * @return Поток информации о задачах в порядке ID.
+     */
+    @Override
+    public Flux<TaskInfoDTO> exportTasks() {
+        return taskRepository.findAll(BY_ID)
+                .map(taskMapper::toTaskInfoDTO);
+    }
+
+    private TaskSliceDTO toSlice(List<TaskRow> rows, int pageSize) {
+        boolean hasNext = rows.size() > pageSize;
+        List<TaskRow> page = hasNext ? rows.subList(0, pageSize) : rows;
+        List<TaskInfoDTO> tasks = page.stream()
+                .map(taskMapper::toTaskInfoDTO)
+                .toList();
+        String nextCursor = hasNext ? TaskCursor.encode(page.get(page.size() - 1).getId()) : null;
+        return new TaskSliceDTO(tasks, nextCursor);
+    }
+}
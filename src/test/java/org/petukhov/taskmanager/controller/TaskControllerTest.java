@@ -1,11 +1,32 @@
 package org.petukhov.taskmanager.controller;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.*;
 import org.opentest4j.AssertionFailedError;
 import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskBatchResultDTO;
+import org.petukhov.taskmanager.dto.TaskBulkRequestDTO;
+import org.petukhov.taskmanager.dto.TaskBulkResultDTO;
+import org.petukhov.taskmanager.dto.TaskChangeDTO;
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
 import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.dto.TaskLookupDTO;
+import org.petukhov.taskmanager.dto.TaskPatchDTO;
+import org.petukhov.taskmanager.dto.TaskStatsDTO;
 import org.petukhov.taskmanager.entity.Task;
+import org.petukhov.taskmanager.event.TaskChangedEvent;
+import org.petukhov.taskmanager.repository.ArchivedTaskRepository;
 import org.petukhov.taskmanager.repository.TaskRepository;
+import org.petukhov.taskmanager.service.TaskArchiveService;
+import org.petukhov.taskmanager.service.TaskStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -15,9 +36,16 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import testData.TestData;
 
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -33,6 +61,16 @@ class TaskControllerTest {
     TaskRepository taskRepository;
     @Autowired
     JdbcTemplate jdbcTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    ArchivedTaskRepository archivedTaskRepository;
+    @Autowired
+    TaskArchiveService taskArchiveService;
+    @Autowired
+    TaskStatsService taskStatsService;
     private CreateTaskDTO createTaskDTO;
     private TaskInfoDTO taskInfoDTO;
     private Task task;
@@ -48,6 +86,7 @@ class TaskControllerTest {
     @AfterEach
     void cleanup() {
         taskRepository.deleteAll();
+        archivedTaskRepository.deleteAll();
     }
 
     @Test
@@ -75,6 +114,41 @@ class TaskControllerTest {
         });
     }
 
+    @Test
+    @DisplayName("Test create tasks in batch - successful")
+    void createTasks() {
+        List<CreateTaskDTO> createTaskDTOs = List.of(createTaskDTO,
+                TestData.randomTestDataCreateTaskDTO(), TestData.randomTestDataCreateTaskDTO());
+
+        ResponseEntity<List<TaskBatchResultDTO>> response = testRestTemplate.exchange(
+                "/tasks/batch", HttpMethod.POST, new HttpEntity<>(createTaskDTOs),
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(3, response.getBody().size());
+        assertEquals(3, taskRepository.count());
+    }
+
+    @Test
+    @DisplayName("Test create tasks in batch with empty name - partially successful")
+    void createTasks_PartiallySuccessful() {
+        CreateTaskDTO invalidDTO = TestData.randomTestDataCreateTaskDTO();
+        invalidDTO.setTitle("");
+
+        ResponseEntity<List<TaskBatchResultDTO>> response = testRestTemplate.exchange(
+                "/tasks/batch", HttpMethod.POST, new HttpEntity<>(List.of(createTaskDTO, invalidDTO)),
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertEquals(HttpStatus.MULTI_STATUS, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertTrue(response.getBody().get(0).isCreated());
+        assertFalse(response.getBody().get(1).isCreated());
+        assertEquals(1, taskRepository.count());
+    }
+
     @Test
     @DisplayName("Test getting task info - successful")
     void getTaskInfo() {
@@ -88,6 +162,42 @@ class TaskControllerTest {
         assertNotNull(response.getBody());
     }
 
+    @Test
+    @DisplayName("Test getting task info - not modified when ETag matches")
+    void getTaskInfo_NotModified() {
+        Long taskId = taskRepository.save(task).getId();
+
+        ResponseEntity<TaskInfoDTO> response = testRestTemplate.getForEntity("/tasks/{taskId}", TaskInfoDTO.class, taskId);
+        String eTag = response.getHeaders().getETag();
+        assertNotNull(eTag);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<String> notModifiedResponse = testRestTemplate.exchange(
+                "/tasks/{taskId}", HttpMethod.GET, new HttpEntity<>(headers), String.class, taskId);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModifiedResponse.getStatusCode());
+        assertNull(notModifiedResponse.getBody());
+    }
+
+    @Test
+    @DisplayName("Test getting task info - not modified checked by version without reading the task")
+    void getTaskInfo_NotModifiedByVersion() {
+        Long taskId = taskRepository.save(task).getId();
+        Timer serviceTimer = meterRegistry.timer("task.manager.calls",
+                "layer", "service", "method", "TaskServiceImpl.getTaskInfo");
+        long reads = serviceTimer.count();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.IF_NONE_MATCH, "\"7\", W/\"0\"");
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                "/tasks/{taskId}", HttpMethod.GET, new HttpEntity<>(headers), String.class, taskId);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertEquals("\"0\"", response.getHeaders().getETag());
+        assertEquals(reads, serviceTimer.count());
+    }
+
     @Test
     @DisplayName("Test getting task info - unsuccessful when task not found")
     public void getTaskInfo_Unsuccessful() {
@@ -97,6 +207,47 @@ class TaskControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Test getting task info - call timings and errors recorded per layer")
+    public void getTaskInfo_MetricsRecorded() {
+        Long taskId = -1L;
+        testRestTemplate.getForEntity("/tasks/{taskId}", String.class, taskId);
+
+        Timer controllerTimer = meterRegistry.find("task.manager.calls")
+                .tags("layer", "controller", "method", "TaskController.getTaskInfo").timer();
+        Timer serviceTimer = meterRegistry.find("task.manager.calls")
+                .tags("layer", "service", "method", "TaskServiceImpl.getTaskInfo").timer();
+        assertNotNull(controllerTimer);
+        assertNotNull(serviceTimer);
+        assertTrue(controllerTimer.count() > 0);
+        assertTrue(serviceTimer.count() > 0);
+        assertNotNull(meterRegistry.find("task.manager.calls.errors")
+                .tags("method", "TaskController.getTaskInfo", "exception", "TaskNotFoundException").counter());
+        assertNotNull(meterRegistry.find("task.manager.calls")
+                .tags("layer", "store", "method", "JpaTaskStore.findById").timer());
+        assertNotNull(meterRegistry.find("task.manager.calls")
+                .tags("layer", "repository", "method", "TaskRepository.findById").timer());
+        assertNotNull(meterRegistry.find("task.manager.calls")
+                .tags("layer", "repository", "method", "ArchivedTaskRepository.findById").timer());
+    }
+
+    @Test
+    @DisplayName("Test getting tasks by IDs - request order kept, missing IDs reported")
+    void getTasksByIds() {
+        Task first = taskRepository.save(TestData.randomTestDataTask());
+        Task second = taskRepository.save(TestData.randomTestDataTask());
+        Long missingId = second.getId() + 1000;
+
+        ResponseEntity<TaskLookupDTO> response = testRestTemplate.postForEntity("/tasks/lookup",
+                List.of(second.getId(), missingId, first.getId()), TaskLookupDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(List.of(second.getId(), first.getId()),
+                response.getBody().getTasks().stream().map(TaskInfoDTO::getTaskId).toList());
+        assertEquals(List.of(missingId), response.getBody().getMissingIds());
+    }
+
     @Test
     @DisplayName("Test getting all tasks info - successful")
     void getAllTasks() {
@@ -147,6 +298,133 @@ class TaskControllerTest {
         assertEquals(0, response.getBody().size());
     }
 
+    @Test
+    @DisplayName("Test getting all tasks by cursor - successful")
+    void getAllTasks_ByCursor() {
+        for (int i = 0; i < 3; i++) {
+            taskRepository.save(TestData.randomTestDataTask());
+        }
+
+        ResponseEntity<List<TaskInfoDTO>> firstResponse = testRestTemplate.exchange(
+                "/tasks?size={size}", HttpMethod.GET, null,
+                new ParameterizedTypeReference<>() {
+                }, 2);
+
+        assertEquals(HttpStatus.OK, firstResponse.getStatusCode());
+        assertNotNull(firstResponse.getBody());
+        assertEquals(2, firstResponse.getBody().size());
+        String nextCursor = firstResponse.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER);
+        assertNotNull(nextCursor);
+
+        ResponseEntity<List<TaskInfoDTO>> secondResponse = testRestTemplate.exchange(
+                "/tasks?size={size}&after={after}", HttpMethod.GET, null,
+                new ParameterizedTypeReference<>() {
+                }, 2, nextCursor);
+
+        assertEquals(HttpStatus.OK, secondResponse.getStatusCode());
+        assertNotNull(secondResponse.getBody());
+        assertEquals(1, secondResponse.getBody().size());
+        assertNull(secondResponse.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    @DisplayName("Test getting all tasks by cursor - unsuccessful when cursor is malformed")
+    void getAllTasks_InvalidCursor() {
+        ResponseEntity<String> response = testRestTemplate.getForEntity(
+                "/tasks?size={size}&after={after}", String.class, 2, "not a cursor");
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test getting filtered tasks - only matching tasks returned")
+    void getAllTasks_Filtered() {
+        LocalDateTime now = LocalDateTime.now();
+        Task overdueTask = TestData.randomTestDataTask();
+        overdueTask.setDueDate(now.minusDays(1));
+        Task completedTask = TestData.randomTestDataTask();
+        completedTask.setDueDate(now.minusDays(1));
+        completedTask.setCompleted(true);
+        Task openTask = TestData.randomTestDataTask();
+        openTask.setDueDate(now.plusDays(1));
+        taskRepository.saveAll(List.of(overdueTask, completedTask, openTask));
+
+        ResponseEntity<List<TaskInfoDTO>> overdueResponse = testRestTemplate.exchange(
+                "/tasks?page=1&size=10&overdue=true", HttpMethod.GET, null,
+                new ParameterizedTypeReference<>() {
+                });
+        ResponseEntity<List<TaskInfoDTO>> openResponse = testRestTemplate.exchange(
+                "/tasks?size=10&completed=false&dueFrom={dueFrom}", HttpMethod.GET, null,
+                new ParameterizedTypeReference<>() {
+                }, now.withNano(0).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+
+        assertEquals(HttpStatus.OK, overdueResponse.getStatusCode());
+        assertNotNull(overdueResponse.getBody());
+        assertEquals(1, overdueResponse.getBody().size());
+        assertEquals(overdueTask.getTitle(), overdueResponse.getBody().get(0).getTitle());
+        assertNotNull(openResponse.getBody());
+        assertEquals(1, openResponse.getBody().size());
+        assertEquals(openTask.getTitle(), openResponse.getBody().get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("Test searching tasks - matches title and description")
+    void searchTasks() {
+        Task titleMatch = TestData.randomTestDataTask();
+        titleMatch.setTitle("Quarterly report");
+        Task descriptionMatch = TestData.randomTestDataTask();
+        descriptionMatch.setDescription("Send the REPORT to the team");
+        Task otherTask = TestData.randomTestDataTask();
+        otherTask.setTitle("Groceries");
+        otherTask.setDescription("Milk");
+        taskRepository.saveAll(List.of(titleMatch, descriptionMatch, otherTask));
+
+        ResponseEntity<List<TaskInfoDTO>> firstResponse = testRestTemplate.exchange(
+                "/tasks/search?q={q}&size={size}", HttpMethod.GET, null,
+                new ParameterizedTypeReference<>() {
+                }, "report", 1);
+
+        assertEquals(HttpStatus.OK, firstResponse.getStatusCode());
+        assertNotNull(firstResponse.getBody());
+        assertEquals(1, firstResponse.getBody().size());
+        String nextCursor = firstResponse.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER);
+        assertNotNull(nextCursor);
+
+        ResponseEntity<List<TaskInfoDTO>> secondResponse = testRestTemplate.exchange(
+                "/tasks/search?q={q}&size={size}&after={after}", HttpMethod.GET, null,
+                new ParameterizedTypeReference<>() {
+                }, "report", 1, nextCursor);
+
+        assertEquals(HttpStatus.OK, secondResponse.getStatusCode());
+        assertNotNull(secondResponse.getBody());
+        assertEquals(1, secondResponse.getBody().size());
+        assertNotEquals(firstResponse.getBody().get(0).getTitle(), secondResponse.getBody().get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("Test searching tasks - unsuccessful when query is blank")
+    void searchTasks_BlankQueryUnsuccessful() {
+        ResponseEntity<String> response = testRestTemplate.getForEntity(
+                "/tasks/search?q={q}&size={size}", String.class, " ", 10);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test exporting all tasks - one line per task")
+    void exportTasks() {
+        for (int i = 0; i < 3; i++) {
+            taskRepository.save(TestData.randomTestDataTask());
+        }
+
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/tasks/export", String.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        assertNotNull(response.getBody());
+        assertEquals(3, response.getBody().lines().count());
+    }
+
     @Test
     @DisplayName("Test deleting task - successful")
     public void deleteTask_Successful() {
@@ -189,6 +467,121 @@ class TaskControllerTest {
         assertEquals(HttpStatus.OK, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Test second-level cache - repeated lookups hit the cache, updates are visible")
+    public void findById_SecondLevelCache() {
+        Long taskId = taskRepository.save(task).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        taskRepository.findById(taskId);
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        taskRepository.findById(taskId);
+        assertTrue(statistics.getSecondLevelCacheHitCount() > hits);
+
+        taskRepository.completeTask(taskId);
+        assertTrue(taskRepository.findById(taskId).orElseThrow().isCompleted());
+    }
+
+    @Test
+    @DisplayName("Test second-level cache - changing a task keeps other cached tasks")
+    public void completeTask_OtherTasksStayCached() {
+        Long changedId = taskRepository.save(TestData.randomTestDataTask()).getId();
+        Long otherId = taskRepository.save(TestData.randomTestDataTask()).getId();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        taskRepository.findById(changedId);
+        taskRepository.findById(otherId);
+
+        taskRepository.completeTask(changedId);
+        long hits = statistics.getSecondLevelCacheHitCount();
+        taskRepository.findById(otherId);
+
+        assertTrue(statistics.getSecondLevelCacheHitCount() > hits);
+        assertTrue(taskRepository.findById(changedId).orElseThrow().isCompleted());
+    }
+
+    @Test
+    @DisplayName("Test updating task info - unsuccessful when If-Match is stale")
+    public void updateTaskInfo_StaleVersionUnsuccessful() {
+        Long taskId = taskRepository.save(task).getId();
+        String eTag = testRestTemplate.getForEntity("/tasks/{taskId}", TaskInfoDTO.class, taskId)
+                .getHeaders().getETag();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setIfMatch(eTag);
+        ResponseEntity<TaskInfoDTO> firstResponse = testRestTemplate.exchange(
+                "/tasks/{taskId}", HttpMethod.PUT, new HttpEntity<>(taskInfoDTO, headers), TaskInfoDTO.class, taskId);
+        ResponseEntity<String> secondResponse = testRestTemplate.exchange(
+                "/tasks/{taskId}", HttpMethod.PUT, new HttpEntity<>(taskInfoDTO, headers), String.class, taskId);
+
+        assertEquals(HttpStatus.OK, firstResponse.getStatusCode());
+        assertNotEquals(eTag, firstResponse.getHeaders().getETag());
+        assertEquals(firstResponse.getHeaders().getETag(),
+                testRestTemplate.getForEntity("/tasks/{taskId}", TaskInfoDTO.class, taskId).getHeaders().getETag());
+        assertEquals(HttpStatus.PRECONDITION_FAILED, secondResponse.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test updating task info - new version returned in ETag without If-Match")
+    public void updateTaskInfo_ETagWithoutIfMatch() {
+        Long taskId = taskRepository.save(task).getId();
+
+        ResponseEntity<TaskInfoDTO> response = testRestTemplate.exchange(
+                "/tasks/{taskId}", HttpMethod.PUT, new HttpEntity<>(taskInfoDTO), TaskInfoDTO.class, taskId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"1\"", response.getHeaders().getETag());
+        assertEquals(response.getHeaders().getETag(),
+                testRestTemplate.getForEntity("/tasks/{taskId}", TaskInfoDTO.class, taskId).getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Test updating task info - unsuccessful when If-Match is malformed")
+    public void updateTaskInfo_MalformedIfMatchUnsuccessful() {
+        Long taskId = taskRepository.save(task).getId();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HttpHeaders.IF_MATCH, "\"abc\"");
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                "/tasks/{taskId}", HttpMethod.PUT, new HttpEntity<>(taskInfoDTO, headers), String.class, taskId);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test updating task info - weak If-Match never matches, any version of a list matches")
+    public void updateTaskInfo_IfMatchComparedStrongly() {
+        Long taskId = taskRepository.save(task).getId();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set(HttpHeaders.IF_MATCH, "W/\"0\"");
+
+        ResponseEntity<String> weakResponse = testRestTemplate.exchange(
+                "/tasks/{taskId}", HttpMethod.PUT, new HttpEntity<>(taskInfoDTO, headers), String.class, taskId);
+        headers.set(HttpHeaders.IF_MATCH, "\"5\", \"0\"");
+        ResponseEntity<TaskInfoDTO> listResponse = testRestTemplate.exchange(
+                "/tasks/{taskId}", HttpMethod.PUT, new HttpEntity<>(taskInfoDTO, headers), TaskInfoDTO.class, taskId);
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, weakResponse.getStatusCode());
+        assertEquals(HttpStatus.OK, listResponse.getStatusCode());
+        assertEquals("\"1\"", listResponse.getHeaders().getETag());
+    }
+
+    @Test
+    @DisplayName("Test updating task info - next read returns updated task")
+    public void updateTaskInfo_NotStaleAfterUpdate() {
+        Long taskId = taskRepository.save(task).getId();
+        testRestTemplate.getForEntity("/tasks/{taskId}", TaskInfoDTO.class, taskId);
+
+        testRestTemplate.exchange("/tasks/{taskId}", HttpMethod.PUT, new HttpEntity<>(taskInfoDTO), Void.class, taskId);
+        ResponseEntity<TaskInfoDTO> response = testRestTemplate.getForEntity("/tasks/{taskId}", TaskInfoDTO.class, taskId);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(taskInfoDTO.getTitle(), response.getBody().getTitle());
+    }
+
     @Test
     @DisplayName("Test updating task info - unsuccessful when task not found")
     public void updateTaskInfo_Unsuccessful() {
@@ -201,5 +594,249 @@ class TaskControllerTest {
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
     }
 
+    @Test
+    @DisplayName("Test patching task - only provided fields change")
+    public void patchTask_Successful() {
+        Long taskId = taskRepository.save(task).getId();
+        TaskPatchDTO taskPatchDTO = new TaskPatchDTO(null, "New description", null, null);
+
+        ResponseEntity<Void> response = testRestTemplate.exchange(
+                "/tasks/{taskId}", HttpMethod.PATCH, new HttpEntity<>(taskPatchDTO), Void.class, taskId);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        Task patchedTask = taskRepository.findById(taskId).orElseThrow();
+        assertEquals(task.getTitle(), patchedTask.getTitle());
+        assertEquals("New description", patchedTask.getDescription());
+    }
+
+    @Test
+    @DisplayName("Test patching task with blank title - unsuccessful")
+    public void patchTask_BlankTitleUnsuccessful() {
+        Long taskId = taskRepository.save(task).getId();
+        TaskPatchDTO taskPatchDTO = new TaskPatchDTO(" ", null, null, null);
+
+        ResponseEntity<String> response = testRestTemplate.exchange(
+                "/tasks/{taskId}", HttpMethod.PATCH, new HttpEntity<>(taskPatchDTO), String.class, taskId);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test completing task - successful")
+    public void completeTask_Successful() {
+        Long taskId = taskRepository.save(task).getId();
+
+        ResponseEntity<Void> response = testRestTemplate.exchange(
+                "/tasks/{taskId}/complete", HttpMethod.PATCH, null, Void.class, taskId);
+
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertTrue(taskRepository.findById(taskId).orElseThrow().isCompleted());
+    }
+
+    @Test
+    @DisplayName("Test completing task - unsuccessful when task not found")
+    public void completeTask_Unsuccessful() {
+        ResponseEntity<Void> response = testRestTemplate.exchange(
+                "/tasks/{taskId}/complete", HttpMethod.PATCH, null, Void.class, 999L);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test bulk deleting tasks by filter - only matching tasks deleted")
+    public void deleteTasks_ByFilterSuccessful() {
+        LocalDateTime cutoff = LocalDateTime.now().withNano(0);
+        Task oldCompleted = TestData.randomTestDataTask();
+        oldCompleted.setCompleted(true);
+        oldCompleted.setDueDate(cutoff.minusDays(30));
+        Task oldOpen = TestData.randomTestDataTask();
+        oldOpen.setCompleted(false);
+        oldOpen.setDueDate(cutoff.minusDays(30));
+        Task recentCompleted = TestData.randomTestDataTask();
+        recentCompleted.setCompleted(true);
+        recentCompleted.setDueDate(cutoff.plusDays(1));
+        taskRepository.saveAll(List.of(oldCompleted, oldOpen, recentCompleted));
+        TaskBulkRequestDTO request = new TaskBulkRequestDTO(null, new TaskFilterDTO(true, null, cutoff, null));
+
+        ResponseEntity<TaskBulkResultDTO> response = testRestTemplate.postForEntity(
+                "/tasks/bulk-delete", request, TaskBulkResultDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, Objects.requireNonNull(response.getBody()).getAffected());
+        assertFalse(taskRepository.existsById(oldCompleted.getId()));
+        assertEquals(2, taskRepository.count());
+    }
+
+    @Test
+    @DisplayName("Test bulk completing tasks by IDs - completed tasks counted once")
+    public void completeTasks_ByIdsSuccessful() {
+        Task open = TestData.randomTestDataTask();
+        open.setCompleted(false);
+        Task done = TestData.randomTestDataTask();
+        done.setCompleted(true);
+        taskRepository.saveAll(List.of(open, done));
+        TaskBulkRequestDTO request = new TaskBulkRequestDTO(List.of(open.getId(), done.getId(), 999_999L), null);
+
+        ResponseEntity<TaskBulkResultDTO> response = testRestTemplate.postForEntity(
+                "/tasks/bulk-complete", request, TaskBulkResultDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1, Objects.requireNonNull(response.getBody()).getAffected());
+        assertTrue(taskRepository.findById(open.getId()).orElseThrow().isCompleted());
+    }
+
+    @Test
+    @DisplayName("Test bulk deleting tasks - unsuccessful with empty filter")
+    public void deleteTasks_EmptyFilterUnsuccessful() {
+        ResponseEntity<String> response = testRestTemplate.postForEntity(
+                "/tasks/bulk-delete", new TaskBulkRequestDTO(null, new TaskFilterDTO()), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test archiving tasks - old completed tasks moved to archive and still readable")
+    public void archiveCompletedTasks_Successful() {
+        Task oldCompleted = TestData.randomTestDataTask();
+        oldCompleted.setCompleted(true);
+        oldCompleted.setDueDate(LocalDateTime.now().minusYears(1));
+        Task oldOpen = TestData.randomTestDataTask();
+        oldOpen.setCompleted(false);
+        oldOpen.setDueDate(LocalDateTime.now().minusYears(1));
+        taskRepository.saveAll(List.of(oldCompleted, oldOpen));
+        taskStatsService.reconcile();
+
+        assertEquals(1, taskArchiveService.archiveCompletedTasks());
+
+        assertEquals(new TaskStatsDTO(1, 0, 1, 1, 0, 0, 0, 0), taskStatsService.getStats());
+        assertFalse(taskRepository.existsById(oldCompleted.getId()));
+        assertTrue(taskRepository.existsById(oldOpen.getId()));
+        ResponseEntity<TaskInfoDTO> response = testRestTemplate.getForEntity(
+                "/tasks/{taskId}", TaskInfoDTO.class, oldCompleted.getId());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(oldCompleted.getTitle(), Objects.requireNonNull(response.getBody()).getTitle());
+    }
+
+    @Test
+    @DisplayName("Test getting all tasks in Smile - chosen by Accept header, JSON stays the default")
+    public void getAllTasks_SmileSuccessful() throws Exception {
+        taskRepository.save(task);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.valueOf("application/x-jackson-smile")));
+
+        ResponseEntity<byte[]> response = testRestTemplate.exchange("/tasks?page=1&size=10", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.valueOf("application/x-jackson-smile"), response.getHeaders().getContentType());
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).findAndRegisterModules();
+        List<TaskInfoDTO> tasks = smileMapper.readValue(response.getBody(), new TypeReference<>() {
+        });
+        assertEquals(1, tasks.size());
+        assertEquals(task.getTitle(), tasks.get(0).getTitle());
+
+        headers.setAccept(List.of(MediaType.ALL));
+        ResponseEntity<String> jsonResponse = testRestTemplate.exchange("/tasks?page=1&size=10", HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        assertTrue(MediaType.APPLICATION_JSON.isCompatibleWith(jsonResponse.getHeaders().getContentType()));
+    }
+
+    @Test
+    @DisplayName("Test creating task from CBOR request body - successful")
+    public void createTask_CborSuccessful() throws Exception {
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory()).findAndRegisterModules();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.valueOf("application/cbor"));
+
+        ResponseEntity<Void> response = testRestTemplate.exchange("/tasks", HttpMethod.POST,
+                new HttpEntity<>(cborMapper.writeValueAsBytes(createTaskDTO), headers), Void.class);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, taskRepository.count());
+        assertEquals(createTaskDTO.getTitle(), taskRepository.findAll().get(0).getTitle());
+    }
+
+    @Test
+    @DisplayName("Test getting all tasks - large page compressed with gzip when client accepts it")
+    public void getAllTasks_GzipSuccessful() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            taskRepository.save(TestData.randomTestDataTask());
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(testRestTemplate.getRootUri() + "/tasks?page=1&size=50"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .GET()
+                .build();
+
+        java.net.http.HttpResponse<byte[]> response = HttpClient.newHttpClient()
+                .send(request, java.net.http.HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        try (GZIPInputStream body = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            List<TaskInfoDTO> tasks = new ObjectMapper().findAndRegisterModules().readValue(body, new TypeReference<>() {
+            });
+            assertEquals(50, tasks.size());
+        }
+    }
+
+    @Test
+    @DisplayName("Test getting task changes - created task appears in the change feed")
+    public void getChanges_Successful() {
+        ResponseEntity<Void> created = testRestTemplate.postForEntity("/tasks", createTaskDTO, Void.class);
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        Long taskId = taskRepository.findAll().get(0).getId();
+
+        String since = "0";
+        for (int attempt = 0; attempt < 10; attempt++) {
+            ResponseEntity<List<TaskChangeDTO>> response = testRestTemplate.exchange(
+                    "/tasks/changes?since=" + since + "&wait=2", HttpMethod.GET, null,
+                    new ParameterizedTypeReference<>() {
+                    });
+            assertEquals(HttpStatus.OK, response.getStatusCode());
+            List<TaskChangeDTO> changes = Objects.requireNonNull(response.getBody());
+            if (changes.stream().anyMatch(change -> taskId.equals(change.getTaskId())
+                    && change.getType() == TaskChangedEvent.Type.CREATED)) {
+                return;
+            }
+            since = response.getHeaders().getFirst(TaskController.NEXT_CURSOR_HEADER);
+        }
+        fail("Created task did not appear in the change feed");
+    }
+
+    @Test
+    @DisplayName("Test getting task changes - wait above the limit rejected")
+    public void getChanges_WaitTooLong() {
+        ResponseEntity<String> response = testRestTemplate.getForEntity("/tasks/changes?wait=3600", String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    @DisplayName("Test getting task stats - reconciled counters updated by service writes")
+    public void getStats_Successful() {
+        LocalDateTime now = LocalDateTime.now();
+        taskRepository.save(new Task(null, "overdue", null, now.minusDays(2), false, 0));
+        taskRepository.save(new Task(null, "completed", null, now.minusDays(1), true, 0));
+        taskRepository.save(new Task(null, "no due date", null, null, false, 0));
+        taskRepository.save(new Task(null, "later", null, now.plusDays(30), false, 0));
+        taskStatsService.reconcile();
+
+        ResponseEntity<TaskStatsDTO> response = testRestTemplate.getForEntity("/tasks/stats", TaskStatsDTO.class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new TaskStatsDTO(4, 1, 3, 1, 0, 0, 1, 1), response.getBody());
+
+        createTaskDTO.setDueDate(now.plusDays(30));
+        assertEquals(HttpStatus.CREATED,
+                testRestTemplate.postForEntity("/tasks", createTaskDTO, Void.class).getStatusCode());
+        Long overdueId = taskRepository.findAll().stream()
+                .filter(saved -> "overdue".equals(saved.getTitle()))
+                .findFirst().orElseThrow().getId();
+        testRestTemplate.exchange("/tasks/" + overdueId + "/complete", HttpMethod.PATCH, null, Void.class);
+
+        response = testRestTemplate.getForEntity("/tasks/stats", TaskStatsDTO.class);
+
+        assertEquals(new TaskStatsDTO(5, 2, 3, 0, 0, 0, 2, 1), response.getBody());
+    }
 
-}
\ No newline at end of file
+}
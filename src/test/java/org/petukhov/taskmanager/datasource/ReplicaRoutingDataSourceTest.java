@@ -0,0 +1,226 @@
+package org.petukhov.taskmanager.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.petukhov.taskmanager.cache.TaskInfoCache;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicBoolean secondReplicaDown = new AtomicBoolean();
+
+    private ReplicaRoutingDataSource routingDataSource;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWriteTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private EntityManagerFactory entityManagerFactory;
+    private EntityManager entityManager;
+    private TransactionTemplate jpaReadWriteTransaction;
+    private TransactionTemplate jpaReadOnlyTransaction;
+
+    @BeforeEach
+    void setup() {
+        DataSource primary = database("primary");
+        DataSource firstReplica = database("replica-0");
+        DataSource secondReplica = new DelegatingDataSource(database("replica-1")) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                if (secondReplicaDown.get()) {
+                    throw new SQLException("Connection refused");
+                }
+                return super.getConnection();
+            }
+        };
+        routingDataSource = new ReplicaRoutingDataSource(primary, List.of(firstReplica, secondReplica), Duration.ofSeconds(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaDialect(new ReplicaAwareJpaDialect());
+        factoryBean.setPackagesToScan(getClass().getPackageName());
+        factoryBean.setJpaPropertyMap(Map.of("hibernate.dialect", "org.hibernate.dialect.H2Dialect"));
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        JpaTransactionManager jpaTransactionManager = new JpaTransactionManager(entityManagerFactory);
+        jpaReadWriteTransaction = new TransactionTemplate(jpaTransactionManager);
+        jpaReadOnlyTransaction = new TransactionTemplate(jpaTransactionManager);
+        jpaReadOnlyTransaction.setReadOnly(true);
+    }
+
+    @AfterEach
+    void cleanup() {
+        PrimaryReads.clear();
+        entityManagerFactory.close();
+    }
+
+    @Test
+    @DisplayName("Test routing - read-only transactions go to replicas in turn, others to primary")
+    void route_ReadOnlyToReplicasRoundRobin() {
+        Set<String> readFrom = new HashSet<>();
+        readFrom.add(readOnlyTransaction.execute(status -> currentDatabase()));
+        readFrom.add(readOnlyTransaction.execute(status -> currentDatabase()));
+
+        assertEquals(Set.of("replica-0", "replica-1"), readFrom);
+        assertEquals("primary", readWriteTransaction.execute(status -> currentDatabase()));
+        assertEquals("primary", currentDatabase());
+    }
+
+    @Test
+    @DisplayName("Test routing - unavailable replica skipped until health check passes")
+    void route_UnhealthyReplicaSkipped() {
+        secondReplicaDown.set(true);
+        routingDataSource.checkHealth();
+
+        assertEquals(1, routingDataSource.healthyReplicas());
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-0", readOnlyTransaction.execute(status -> currentDatabase()));
+        }
+
+        secondReplicaDown.set(false);
+        routingDataSource.checkHealth();
+
+        assertEquals(2, routingDataSource.healthyReplicas());
+    }
+
+    @Test
+    @DisplayName("Test routing - replica failing on connect marked down and read served elsewhere")
+    void route_FailedConnectFallsBack() {
+        secondReplicaDown.set(true);
+
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica-0", readOnlyTransaction.execute(status -> currentDatabase()));
+        }
+        assertEquals(1, routingDataSource.healthyReplicas());
+    }
+
+    @Test
+    @DisplayName("Test routing - reads go to primary while primary reads are required")
+    void route_PrimaryReadsRequired() {
+        PrimaryReads.require();
+
+        assertEquals("primary", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    @DisplayName("Test JPA routing - read-only transactions go to replicas, others to primary")
+    void route_JpaTransactions() {
+        Set<String> readFrom = new HashSet<>();
+        readFrom.add(jpaReadOnlyTransaction.execute(status -> currentJpaDatabase()));
+        readFrom.add(jpaReadOnlyTransaction.execute(status -> currentJpaDatabase()));
+
+        assertEquals(Set.of("replica-0", "replica-1"), readFrom);
+        assertEquals("primary", jpaReadWriteTransaction.execute(status -> currentJpaDatabase()));
+        PrimaryReads.require();
+        assertEquals("primary", jpaReadOnlyTransaction.execute(status -> currentJpaDatabase()));
+    }
+
+    @Test
+    @DisplayName("Test JPA routing - replica reads not stored in second-level cache")
+    void route_JpaReplicaReadsNotCached() {
+        assertEquals(CacheMode.GET, jpaReadOnlyTransaction.execute(status -> currentCacheMode()));
+        assertEquals(CacheMode.NORMAL, jpaReadWriteTransaction.execute(status -> currentCacheMode()));
+        PrimaryReads.require();
+        assertEquals(CacheMode.NORMAL, jpaReadOnlyTransaction.execute(status -> currentCacheMode()));
+    }
+
+    @Test
+    @DisplayName("Test task info cache - misses loaded from primary inside read-only transaction")
+    void taskInfoCache_LoadsFromPrimary() {
+        TaskInfoCache taskInfoCache = new TaskInfoCache(new ConcurrentMapCacheManager(TaskInfoCache.CACHE_NAME));
+
+        TaskInfoDTO loaded = jpaReadOnlyTransaction.execute(status -> taskInfoCache.get(1L, () -> {
+            TaskInfoDTO taskInfoDTO = new TaskInfoDTO();
+            taskInfoDTO.setTitle(currentJpaDatabase());
+            return taskInfoDTO;
+        }));
+
+        assertNotNull(loaded);
+        assertEquals("primary", loaded.getTitle());
+        assertFalse(PrimaryReads.isRequired());
+        assertNotEquals("primary", jpaReadOnlyTransaction.execute(status -> currentJpaDatabase()));
+    }
+
+    @Test
+    @DisplayName("Test read-your-writes filter - reads after a write within the window go to primary")
+    void readYourWritesFilter_RecentWriteReadsPrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        AtomicReference<String> readFrom = new AtomicReference<>();
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("POST", "/tasks"), writeResponse, new MockFilterChain());
+        Cookie lastWrite = writeResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        assertNotNull(lastWrite);
+
+        MockHttpServletRequest readRequest = new MockHttpServletRequest("GET", "/tasks");
+        readRequest.setCookies(lastWrite);
+        filter.doFilter(readRequest, new MockHttpServletResponse(), (request, response) ->
+                readFrom.set(readOnlyTransaction.execute(status -> currentDatabase())));
+        assertEquals("primary", readFrom.get());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/tasks"), new MockHttpServletResponse(), (request, response) ->
+                readFrom.set(readOnlyTransaction.execute(status -> currentDatabase())));
+        assertNotEquals("primary", readFrom.get());
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select label from database_name", String.class);
+    }
+
+    private String currentJpaDatabase() {
+        return (String) entityManager.createNativeQuery("select label from database_name").getSingleResult();
+    }
+
+    private CacheMode currentCacheMode() {
+        return entityManager.unwrap(Session.class).getCacheMode();
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:routing-" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists database_name (label varchar(32))");
+        jdbcTemplate.update("delete from database_name");
+        jdbcTemplate.update("insert into database_name (label) values (?)", name);
+        return dataSource;
+    }
+}
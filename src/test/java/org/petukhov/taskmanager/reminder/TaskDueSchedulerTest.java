@@ -0,0 +1,138 @@
+package org.petukhov.taskmanager.reminder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.petukhov.taskmanager.config.TaskBatchProperties;
+import org.petukhov.taskmanager.config.TaskReminderProperties;
+import org.petukhov.taskmanager.event.TaskChangedEvent;
+import org.petukhov.taskmanager.event.TaskDueEvent;
+import org.petukhov.taskmanager.repository.TaskDueDate;
+import org.petukhov.taskmanager.repository.TaskRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskDueSchedulerTest {
+    @Mock
+    private TaskRepository taskRepository;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private TaskReminderProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private TaskDueScheduler taskDueScheduler;
+
+    @BeforeEach
+    void setup() {
+        properties = new TaskReminderProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        taskDueScheduler = new TaskDueScheduler(taskRepository, eventPublisher, properties,
+                new TaskBatchProperties(), meterRegistry);
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (taskDueScheduler.isRunning()) {
+            taskDueScheduler.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Test reminders - task from the loaded window fired when due")
+    void loadedTaskFired() {
+        LocalDateTime dueDate = LocalDateTime.now().plusNanos(200_000_000);
+        when(taskRepository.findOpenDueDates(any(), any(), any(), any(Pageable.class)))
+                .thenReturn(List.of(new TaskDueDate(1L, dueDate)));
+        when(taskRepository.findOpenDueDateById(1L)).thenReturn(Optional.of(dueDate));
+
+        taskDueScheduler.start();
+
+        verify(eventPublisher, timeout(5000)).publishEvent(new TaskDueEvent(1L, dueDate));
+        assertEquals(1, meterRegistry.get(TaskDueScheduler.FIRED_METRIC).counter().count());
+    }
+
+    @Test
+    @DisplayName("Test reminders - load after a shrunk window continues after the last loaded task")
+    void shrunkWindowNotReloaded() {
+        LocalDateTime dueDate = LocalDateTime.now().plusNanos(200_000_000);
+        properties.setMaxScheduled(2);
+        when(taskRepository.findOpenDueDates(any(), eq(0L), any(), any(Pageable.class)))
+                .thenReturn(List.of(new TaskDueDate(1L, dueDate), new TaskDueDate(2L, dueDate)));
+        when(taskRepository.findOpenDueDateById(anyLong())).thenReturn(Optional.of(dueDate));
+        taskDueScheduler.start();
+
+        verify(eventPublisher, timeout(5000)).publishEvent(new TaskDueEvent(1L, dueDate));
+        verify(eventPublisher, timeout(5000)).publishEvent(new TaskDueEvent(2L, dueDate));
+        verify(taskRepository, timeout(5000)).findOpenDueDates(eq(dueDate), eq(2L), any(), any(Pageable.class));
+        verify(taskRepository).findOpenDueDates(any(), eq(0L), any(), any(Pageable.class));
+        assertEquals(0, taskDueScheduler.scheduledCount());
+        assertEquals(2, meterRegistry.get(TaskDueScheduler.FIRED_METRIC).counter().count());
+    }
+
+    @Test
+    @DisplayName("Test reminders - created task scheduled, deleted task removed without firing")
+    void changedTasksScheduled() {
+        LocalDateTime dueDate = LocalDateTime.now().plusNanos(200_000_000);
+        LocalDateTime laterDueDate = LocalDateTime.now().plusMinutes(10);
+        when(taskRepository.findOpenDueDateById(1L)).thenReturn(Optional.of(dueDate));
+        taskDueScheduler.start();
+
+        taskDueScheduler.onTaskChanged(TaskChangedEvent.created(1L, dueDate));
+        taskDueScheduler.onTaskChanged(TaskChangedEvent.created(2L, laterDueDate));
+        taskDueScheduler.onTaskChanged(TaskChangedEvent.deleted(2L));
+
+        verify(eventPublisher, timeout(5000)).publishEvent(new TaskDueEvent(1L, dueDate));
+        assertEquals(0, taskDueScheduler.scheduledCount());
+        verify(eventPublisher, never()).publishEvent(new TaskDueEvent(2L, laterDueDate));
+    }
+
+    @Test
+    @DisplayName("Test reminders - completed task not fired")
+    void completedTaskNotFired() {
+        taskDueScheduler.start();
+
+        taskDueScheduler.onTaskChanged(TaskChangedEvent.created(1L, LocalDateTime.now().plusMinutes(10)));
+        assertEquals(1, taskDueScheduler.scheduledCount());
+        taskDueScheduler.onTaskChanged(TaskChangedEvent.completed(1L));
+
+        assertEquals(0, taskDueScheduler.scheduledCount());
+        verify(taskRepository, never()).findOpenDueDateById(any());
+    }
+
+    @Test
+    @DisplayName("Test reminders - task without due date unscheduled without reading it")
+    void taskWithoutDueDateNotRead() {
+        taskDueScheduler.start();
+
+        taskDueScheduler.onTaskChanged(TaskChangedEvent.created(1L, null));
+        taskDueScheduler.onTaskChanged(TaskChangedEvent.created(2L, LocalDateTime.now().plusMinutes(10)));
+        assertEquals(1, taskDueScheduler.scheduledCount());
+        taskDueScheduler.onTaskChanged(TaskChangedEvent.updated(2L, null, false));
+
+        assertEquals(0, taskDueScheduler.scheduledCount());
+        verify(taskRepository, never()).findOpenDueDateById(any());
+    }
+
+    @Test
+    @DisplayName("Test reminders - task due beyond the window left for the next window load")
+    void taskBeyondWindowNotScheduled() {
+        taskDueScheduler.start();
+
+        taskDueScheduler.onTaskChanged(TaskChangedEvent.created(1L, LocalDateTime.now().plusDays(1)));
+
+        assertEquals(0, taskDueScheduler.scheduledCount());
+    }
+}
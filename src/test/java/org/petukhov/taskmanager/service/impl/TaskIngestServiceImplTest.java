@@ -0,0 +1,162 @@
+package org.petukhov.taskmanager.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.petukhov.taskmanager.config.TaskIngestProperties;
+import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskBatchResultDTO;
+import org.petukhov.taskmanager.dto.TaskIngestStatusDTO;
+import org.petukhov.taskmanager.exception.TaskIngestRejectedException;
+import org.petukhov.taskmanager.exception.TaskNotFoundException;
+import org.petukhov.taskmanager.service.TaskService;
+import testData.TestData;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskIngestServiceImplTest {
+    @Mock
+    private TaskService taskService;
+
+    private TaskIngestProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private TaskIngestServiceImpl taskIngestService;
+
+    @BeforeEach
+    void setup() {
+        properties = new TaskIngestProperties();
+        properties.setEnabled(true);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (taskIngestService != null && taskIngestService.isRunning()) {
+            taskIngestService.stop();
+        }
+    }
+
+    private static List<TaskBatchResultDTO> created(List<CreateTaskDTO> createTaskDTOs, long firstTaskId) {
+        List<TaskBatchResultDTO> results = new ArrayList<>();
+        for (int i = 0; i < createTaskDTOs.size(); i++) {
+            results.add(new TaskBatchResultDTO(i, firstTaskId + i, true, null));
+        }
+        return results;
+    }
+
+    @Test
+    @DisplayName("Test submitting tasks - saved in batches and drained on stop")
+    @SuppressWarnings("unchecked")
+    void submit() {
+        taskIngestService = new TaskIngestServiceImpl(taskService, properties, meterRegistry);
+        when(taskService.createTasks(anyList())).thenAnswer(invocation ->
+                created((List<CreateTaskDTO>) invocation.getArgument(0), 1L));
+        taskIngestService.start();
+
+        TaskIngestStatusDTO first = taskIngestService.submit(TestData.randomTestDataCreateTaskDTO());
+        TaskIngestStatusDTO second = taskIngestService.submit(TestData.randomTestDataCreateTaskDTO());
+        assertEquals(TaskIngestStatusDTO.Status.PENDING, first.getStatus());
+        taskIngestService.stop();
+
+        assertEquals(TaskIngestStatusDTO.Status.CREATED, taskIngestService.getStatus(first.getTrackingId()).getStatus());
+        assertEquals(TaskIngestStatusDTO.Status.CREATED, taskIngestService.getStatus(second.getTrackingId()).getStatus());
+        assertNotNull(taskIngestService.getStatus(second.getTrackingId()).getTaskId());
+        assertEquals(0, meterRegistry.get(TaskIngestServiceImpl.QUEUE_DEPTH_METRIC).gauge().value());
+        assertTrue(meterRegistry.get(TaskIngestServiceImpl.FLUSH_METRIC).timer().count() > 0);
+    }
+
+    @Test
+    @DisplayName("Test submitting tasks - rejected when queue is full")
+    void submit_QueueFullUnsuccessful() throws InterruptedException {
+        properties.setCapacity(1);
+        taskIngestService = new TaskIngestServiceImpl(taskService, properties, meterRegistry);
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch releaseFlush = new CountDownLatch(1);
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            flushStarted.countDown();
+            releaseFlush.await();
+            return created(invocation.getArgument(0), 1L);
+        });
+        taskIngestService.start();
+
+        taskIngestService.submit(TestData.randomTestDataCreateTaskDTO());
+        assertTrue(flushStarted.await(5, TimeUnit.SECONDS));
+        taskIngestService.submit(TestData.randomTestDataCreateTaskDTO());
+
+        assertThrows(TaskIngestRejectedException.class,
+                () -> taskIngestService.submit(TestData.randomTestDataCreateTaskDTO()));
+        assertEquals(1, meterRegistry.get(TaskIngestServiceImpl.REJECTED_METRIC).counter().count());
+        releaseFlush.countDown();
+    }
+
+    @Test
+    @DisplayName("Test submitting tasks - rejected when queue is stopped")
+    void submit_StoppedUnsuccessful() {
+        taskIngestService = new TaskIngestServiceImpl(taskService, properties, meterRegistry);
+
+        assertThrows(TaskIngestRejectedException.class,
+                () -> taskIngestService.submit(TestData.randomTestDataCreateTaskDTO()));
+        verify(taskService, never()).createTasks(anyList());
+    }
+
+    @Test
+    @DisplayName("Test stopping - tasks not saved within shutdown timeout marked failed, new tasks rejected")
+    void stop_ShutdownTimeoutExceeded() throws InterruptedException {
+        properties.setShutdownTimeout(Duration.ofMillis(100));
+        taskIngestService = new TaskIngestServiceImpl(taskService, properties, meterRegistry);
+        CountDownLatch flushStarted = new CountDownLatch(1);
+        CountDownLatch releaseFlush = new CountDownLatch(1);
+        when(taskService.createTasks(anyList())).thenAnswer(invocation -> {
+            flushStarted.countDown();
+            releaseFlush.await();
+            return created(invocation.getArgument(0), 1L);
+        });
+        taskIngestService.start();
+
+        taskIngestService.submit(TestData.randomTestDataCreateTaskDTO());
+        assertTrue(flushStarted.await(5, TimeUnit.SECONDS));
+        TaskIngestStatusDTO queued = taskIngestService.submit(TestData.randomTestDataCreateTaskDTO());
+        taskIngestService.stop();
+        releaseFlush.countDown();
+
+        assertEquals(TaskIngestStatusDTO.Status.FAILED, taskIngestService.getStatus(queued.getTrackingId()).getStatus());
+        assertThrows(TaskIngestRejectedException.class,
+                () -> taskIngestService.submit(TestData.randomTestDataCreateTaskDTO()));
+    }
+
+    @Test
+    @DisplayName("Test flushing tasks - failed tasks keep the error")
+    void flush_Failed() {
+        taskIngestService = new TaskIngestServiceImpl(taskService, properties, meterRegistry);
+        UUID trackingId = UUID.randomUUID();
+        when(taskService.createTasks(anyList())).thenReturn(List.of(new TaskBatchResultDTO(0, null, false, "Title cannot be blank")));
+
+        taskIngestService.flush(List.of(new TaskIngestServiceImpl.IngestItem(trackingId, new CreateTaskDTO())));
+
+        TaskIngestStatusDTO status = taskIngestService.getStatus(trackingId);
+        assertEquals(TaskIngestStatusDTO.Status.FAILED, status.getStatus());
+        assertEquals("Title cannot be blank", status.getError());
+    }
+
+    @Test
+    @DisplayName("Test getting ingest status - unsuccessful when tracking ID is unknown")
+    void getStatus_Unsuccessful() {
+        taskIngestService = new TaskIngestServiceImpl(taskService, properties, meterRegistry);
+
+        assertThrows(TaskNotFoundException.class, () -> taskIngestService.getStatus(UUID.randomUUID()));
+    }
+}
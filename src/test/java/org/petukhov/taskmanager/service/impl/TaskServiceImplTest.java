@@ -6,25 +6,62 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.petukhov.taskmanager.cache.TaskInfoCache;
+import org.petukhov.taskmanager.config.TaskBatchProperties;
 import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskBatchResultDTO;
+import org.petukhov.taskmanager.dto.TaskBulkRequestDTO;
+import org.petukhov.taskmanager.dto.TaskBulkResultDTO;
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
 import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.dto.TaskLookupDTO;
+import org.petukhov.taskmanager.dto.TaskPatchDTO;
+import org.petukhov.taskmanager.dto.TaskSliceDTO;
+import org.petukhov.taskmanager.entity.ArchivedTask;
 import org.petukhov.taskmanager.entity.Task;
+import org.petukhov.taskmanager.event.TaskChangedEvent;
+import org.petukhov.taskmanager.exception.InvalidRequestException;
 import org.petukhov.taskmanager.exception.TaskNotFoundException;
+import org.petukhov.taskmanager.exception.TaskVersionConflictException;
 import org.petukhov.taskmanager.mapper.TaskMapper;
+import org.petukhov.taskmanager.repository.ArchivedTaskRepository;
+import org.petukhov.taskmanager.repository.JpaTaskStore;
+import org.petukhov.taskmanager.repository.TaskMutation;
 import org.petukhov.taskmanager.repository.TaskRepository;
+import org.petukhov.taskmanager.repository.TaskSearchHit;
+import org.petukhov.taskmanager.repository.TaskSearchRepository;
+import org.petukhov.taskmanager.repository.TaskStatsKey;
+import org.petukhov.taskmanager.service.TaskStatsService;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import testData.TestData;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -36,9 +73,28 @@ class TaskServiceImplTest {
     @Mock
     private TaskRepository taskRepository;
     @Mock
+    private ArchivedTaskRepository archivedTaskRepository;
+    @Mock
+    private TaskSearchRepository taskSearchRepository;
+    @Mock
     private TaskMapper taskMapper;
+    @Mock
+    private Validator validator;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private TaskBatchProperties batchProperties = new TaskBatchProperties();
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    @Mock
+    private TaskStatsService taskStatsService;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private TaskInfoCache taskInfoCache = new TaskInfoCache(new ConcurrentMapCacheManager(TaskInfoCache.CACHE_NAME));
 
-    @InjectMocks
     private TaskServiceImpl taskService;
 
     private CreateTaskDTO createTaskDTO;
@@ -47,6 +103,9 @@ class TaskServiceImplTest {
 
     @BeforeEach
     void setup() {
+        taskService = new TaskServiceImpl(new JpaTaskStore(taskRepository, taskSearchRepository, entityManager),
+                archivedTaskRepository, taskMapper, validator, transactionTemplate, batchProperties, taskInfoCache,
+                objectMapper, taskStatsService, eventPublisher);
         createTaskDTO = TestData.randomTestDataCreateTaskDTO();
         taskInfoDTO = TestData.randomTestDataTaskInfoDTO();
         task = TestData.randomTestDataTask();
@@ -81,6 +140,61 @@ class TaskServiceImplTest {
         verify(taskRepository, times(1)).save(taskWithEmptyTitle);
     }
 
+    @Test
+    @DisplayName("Test create tasks in batch - saved in chunks")
+    @SuppressWarnings("unchecked")
+    void createTasks() {
+        batchProperties.setChunkSize(2);
+        List<CreateTaskDTO> createTaskDTOs = List.of(createTaskDTO, createTaskDTO, createTaskDTO);
+        when(taskMapper.toEntityTask(createTaskDTO)).thenAnswer(invocation -> new Task());
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<List<Task>>>getArgument(0).doInTransaction(null));
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Task> chunk = invocation.getArgument(0);
+            chunk.forEach(saved -> saved.setId((long) System.identityHashCode(saved)));
+            return chunk;
+        });
+
+        List<TaskBatchResultDTO> results = taskService.createTasks(createTaskDTOs);
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(TaskBatchResultDTO::isCreated));
+        assertTrue(results.stream().allMatch(result -> result.getTaskId() != null));
+        verify(taskRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("Test create tasks in batch - invalid item reported, others saved")
+    @SuppressWarnings("unchecked")
+    void createTasks_InvalidItem() {
+        CreateTaskDTO invalidDTO = TestData.randomTestDataCreateTaskDTO();
+        invalidDTO.setTitle("");
+        ConstraintViolation<CreateTaskDTO> violation = mock(ConstraintViolation.class);
+        when(violation.getMessage()).thenReturn("Title cannot be blank");
+        when(validator.validate(any(CreateTaskDTO.class))).thenAnswer(invocation ->
+                invocation.getArgument(0) == invalidDTO ? Set.of(violation) : Set.of());
+        when(taskMapper.toEntityTask(createTaskDTO)).thenReturn(task);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<List<Task>>>getArgument(0).doInTransaction(null));
+        when(taskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TaskBatchResultDTO> results = taskService.createTasks(List.of(invalidDTO, createTaskDTO));
+
+        assertFalse(results.get(0).isCreated());
+        assertEquals("Title cannot be blank", results.get(0).getError());
+        assertTrue(results.get(1).isCreated());
+        assertEquals(1, results.get(1).getIndex());
+    }
+
+    @Test
+    @DisplayName("Test create tasks in batch - unsuccessful when batch is too large")
+    void createTasks_TooLarge() {
+        batchProperties.setMaxSize(1);
+
+        assertThrows(InvalidRequestException.class,
+                () -> taskService.createTasks(List.of(createTaskDTO, createTaskDTO)));
+        verify(taskRepository, never()).saveAll(anyList());
+    }
 
     @Test
     @DisplayName("Test getting task info - successful")
@@ -105,6 +219,136 @@ class TaskServiceImplTest {
         assertEquals(task.isCompleted(), info.isCompleted());
     }
 
+    @Test
+    @DisplayName("Test getting task info - second read served from cache")
+    void getTaskInfo_Cached() {
+        Long taskId = 1L;
+        task.setId(taskId);
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(taskMapper.toTaskInfoDTO(task)).thenReturn(taskInfoDTO);
+
+        taskService.getTaskInfo(taskId);
+        TaskInfoDTO info = taskService.getTaskInfo(taskId);
+
+        assertEquals(taskInfoDTO, info);
+        verify(taskRepository, times(1)).findById(taskId);
+    }
+
+    @Test
+    @DisplayName("Test getting task info - update evicts cached entry")
+    void getTaskInfo_EvictedOnUpdate() {
+        Long taskId = 1L;
+        task.setId(taskId);
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.of(task));
+        when(taskRepository.updateTask(eq(taskId), isNull(), any(), any(), any(), anyBoolean()))
+                .thenReturn(Optional.of(mutation(taskId)));
+        when(taskMapper.toTaskInfoDTO(task)).thenReturn(taskInfoDTO);
+
+        taskService.getTaskInfo(taskId);
+        taskService.updateTaskInfo(taskId, taskInfoDTO);
+        taskService.getTaskInfo(taskId);
+
+        verify(taskRepository, times(2)).findById(taskId);
+    }
+
+    @Test
+    @DisplayName("Test getting tasks by IDs - cache checked first, request order kept, missing IDs reported")
+    void getTasksByIds() {
+        TaskInfoDTO cachedTaskInfo = TestData.randomTestDataTaskInfoDTO();
+        taskInfoCache.get(1L, () -> cachedTaskInfo);
+        task.setId(2L);
+
+        when(taskRepository.findAllById(List.of(2L, 3L))).thenReturn(List.of(task));
+        when(taskMapper.toTaskInfoDTO(task)).thenReturn(taskInfoDTO);
+
+        TaskLookupDTO lookup = taskService.getTasksByIds(List.of(2L, 1L, 3L, 2L));
+
+        assertEquals(List.of(taskInfoDTO, cachedTaskInfo), lookup.getTasks());
+        assertEquals(List.of(3L), lookup.getMissingIds());
+        verify(taskRepository, never()).findById(any(Long.class));
+    }
+
+    @Test
+    @DisplayName("Test getting tasks by IDs - unsuccessful when list is too large")
+    void getTasksByIds_TooLarge() {
+        batchProperties.setMaxSize(1);
+
+        assertThrows(InvalidRequestException.class, () -> taskService.getTasksByIds(List.of(1L, 2L)));
+        verify(taskRepository, never()).findAllById(any());
+    }
+
+    @Test
+    @DisplayName("Test bulk deleting tasks by IDs - duplicates removed, existing tasks deleted in chunks, cache evicted")
+    @SuppressWarnings("unchecked")
+    void deleteTasks_ByIds() {
+        batchProperties.setChunkSize(2);
+        taskInfoCache.get(1L, () -> taskInfoDTO);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        when(taskRepository.findIds(any(Specification.class), anyInt()))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of());
+        when(taskRepository.deleteTasksByIds(List.of(1L, 2L))).thenReturn(List.of(mutation(1L), mutation(2L)));
+
+        TaskBulkResultDTO result = taskService.deleteTasks(new TaskBulkRequestDTO(List.of(1L, 2L, 3L, 2L), null));
+
+        assertEquals(2, result.getAffected());
+        assertNull(taskInfoCache.getIfPresent(1L));
+        verify(taskRepository, times(2)).findIds(any(Specification.class), anyInt());
+        verify(taskRepository, times(1)).deleteTasksByIds(anyList());
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(2L));
+        verify(eventPublisher, never()).publishEvent(TaskChangedEvent.deleted(3L));
+    }
+
+    @Test
+    @DisplayName("Test bulk completing tasks by filter - matching IDs selected and completed in chunks")
+    @SuppressWarnings("unchecked")
+    void completeTasks_ByFilter() {
+        batchProperties.setChunkSize(2);
+        TaskFilterDTO filter = new TaskFilterDTO(null, null, null, true);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<Object>>getArgument(0).doInTransaction(null));
+        when(taskRepository.findIds(any(Specification.class), eq(2)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(5L));
+        when(taskRepository.completeTasksByIds(anyList())).thenAnswer(invocation ->
+                invocation.<List<Long>>getArgument(0).stream().map(TaskServiceImplTest::mutation).toList());
+
+        TaskBulkResultDTO result = taskService.completeTasks(new TaskBulkRequestDTO(null, filter));
+
+        assertEquals(3, result.getAffected());
+        verify(taskRepository, times(2)).findIds(any(Specification.class), eq(2));
+        verify(taskRepository).completeTasksByIds(List.of(5L));
+    }
+
+    @Test
+    @DisplayName("Test bulk deleting tasks - unsuccessful without exactly one of IDs and filter")
+    void deleteTasks_InvalidRequestUnsuccessful() {
+        assertThrows(InvalidRequestException.class,
+                () -> taskService.deleteTasks(new TaskBulkRequestDTO(null, null)));
+        assertThrows(InvalidRequestException.class,
+                () -> taskService.deleteTasks(new TaskBulkRequestDTO(List.of(1L), new TaskFilterDTO(true, null, null, null))));
+        assertThrows(InvalidRequestException.class,
+                () -> taskService.deleteTasks(new TaskBulkRequestDTO(null, new TaskFilterDTO())));
+        verifyNoInteractions(transactionTemplate);
+    }
+
+    @Test
+    @DisplayName("Test getting task info - archived task read from archive")
+    void getTaskInfo_Archived() {
+        Long taskId = 1L;
+        ArchivedTask archivedTask = new ArchivedTask();
+        archivedTask.setId(taskId);
+
+        when(taskRepository.findById(taskId)).thenReturn(Optional.empty());
+        when(archivedTaskRepository.findById(taskId)).thenReturn(Optional.of(archivedTask));
+        when(taskMapper.toTaskInfoDTO(archivedTask)).thenReturn(taskInfoDTO);
+
+        assertEquals(taskInfoDTO, taskService.getTaskInfo(taskId));
+    }
+
     @Test
     @DisplayName("Test getting task info - unsuccessful when task not found")
     void getTaskInfo_Unsuccessful() {
@@ -130,7 +374,7 @@ class TaskServiceImplTest {
                 .map(taskMapper::toTaskInfoDTO)
                 .collect(Collectors.toList());
 
-        when(taskRepository.findAll(any(PageRequest.class))).thenReturn(new PageImpl<>(tasks));
+        when(taskRepository.findAllBy(any(Pageable.class))).thenReturn(new SliceImpl<>(tasks));
 
         List<TaskInfoDTO> allTasks = taskService.getAllTasks(1, 10);
 
@@ -142,14 +386,143 @@ class TaskServiceImplTest {
     public void getAllTasks_EmptyList() {
         List<Task> tasks = new ArrayList<>();
 
-        when(taskRepository.findAll(any(PageRequest.class))).thenReturn(new PageImpl<>(tasks));
+        when(taskRepository.findAllBy(any(Pageable.class))).thenReturn(new SliceImpl<>(tasks));
 
         List<TaskInfoDTO> allTasks = taskService.getAllTasks(1, 10);
 
         assertTrue(allTasks.isEmpty());
     }
 
+    @Test
+    @DisplayName("Test getting filtered tasks info - specification query used")
+    @SuppressWarnings("unchecked")
+    void getAllTasks_Filtered() {
+        TaskFilterDTO filter = new TaskFilterDTO(false, null, null, null);
+
+        when(taskRepository.findSlice(any(Specification.class), any(Pageable.class), eq(true)))
+                .thenReturn(new SliceImpl<>(List.of(task)));
+        when(taskMapper.toTaskInfoDTO(task)).thenReturn(taskInfoDTO);
+
+        List<TaskInfoDTO> tasks = taskService.getAllTasks(filter, 1, 10);
+
+        assertEquals(List.of(taskInfoDTO), tasks);
+        verify(taskRepository, never()).findAllBy(any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Test getting overdue tasks info - result not put into query cache")
+    @SuppressWarnings("unchecked")
+    void getAllTasks_OverdueNotCached() {
+        TaskFilterDTO filter = new TaskFilterDTO(null, null, null, true);
+
+        when(taskRepository.findSlice(any(Specification.class), any(Pageable.class), eq(false)))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        assertEquals(List.of(), taskService.getAllTasks(filter, 1, 10));
+    }
+
+    @Test
+    @DisplayName("Test getting tasks after cursor - next cursor points to last task")
+    void getTasksAfter() {
+        Task first = TestData.randomTestDataTask();
+        first.setId(11L);
+        Task second = TestData.randomTestDataTask();
+        second.setId(12L);
+
+        when(taskRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(first, second), PageRequest.of(0, 2), true));
+
+        TaskSliceDTO slice = taskService.getTasksAfter(TaskCursor.encode(10L), 2);
+
+        assertEquals(2, slice.getTasks().size());
+        assertEquals(12L, TaskCursor.decode(slice.getNextCursor()));
+    }
+
+    @Test
+    @DisplayName("Test getting tasks after cursor - last slice has no next cursor")
+    void getTasksAfter_LastSlice() {
+        when(taskRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(task), PageRequest.of(0, 10), false));
+
+        TaskSliceDTO slice = taskService.getTasksAfter(null, 10);
+
+        assertEquals(1, slice.getTasks().size());
+        assertNull(slice.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Test getting tasks after cursor - unsuccessful when cursor is malformed")
+    void getTasksAfter_InvalidCursor() {
+        assertThrows(InvalidRequestException.class, () -> taskService.getTasksAfter("not a cursor", 10));
+        verify(taskRepository, never()).findByIdGreaterThanOrderByIdAsc(any(), any());
+    }
 
+    @Test
+    @DisplayName("Test searching tasks - next cursor points to last hit")
+    void searchTasks() {
+        Task first = TestData.randomTestDataTask();
+        first.setId(11L);
+        Task second = TestData.randomTestDataTask();
+        second.setId(12L);
+        Task third = TestData.randomTestDataTask();
+        third.setId(13L);
+
+        when(taskSearchRepository.search("report", null, null, 3))
+                .thenReturn(List.of(new TaskSearchHit(first, 0.5f), new TaskSearchHit(second, 0.25f),
+                        new TaskSearchHit(third, 0.1f)));
+
+        TaskSliceDTO slice = taskService.searchTasks(" report ", null, 2);
+
+        assertEquals(2, slice.getTasks().size());
+        TaskCursor.SearchPosition position = TaskCursor.decodeSearchPosition(slice.getNextCursor());
+        assertEquals(0.25f, position.rank());
+        assertEquals(12L, position.taskId());
+    }
+
+    @Test
+    @DisplayName("Test searching tasks after cursor - last slice has no next cursor")
+    void searchTasks_LastSlice() {
+        when(taskSearchRepository.search("report", 0.25f, 12L, 3))
+                .thenReturn(List.of(new TaskSearchHit(task, 0.1f)));
+
+        TaskSliceDTO slice = taskService.searchTasks("report", TaskCursor.encode(0.25f, 12L), 2);
+
+        assertEquals(1, slice.getTasks().size());
+        assertNull(slice.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Test searching tasks - unsuccessful when query is blank")
+    void searchTasks_BlankQueryUnsuccessful() {
+        assertThrows(InvalidRequestException.class, () -> taskService.searchTasks("  ", null, 10));
+        verify(taskSearchRepository, never()).search(any(), any(), any(), anyInt());
+    }
+
+
+
+    @Test
+    @DisplayName("Test exporting tasks - one JSON line per task, entities detached")
+    void exportTasks() throws IOException {
+        Task second = TestData.randomTestDataTask();
+        TaskInfoDTO secondInfo = TestData.randomTestDataTaskInfoDTO();
+
+        when(taskRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(task, second));
+        when(taskMapper.toTaskInfoDTO(task)).thenReturn(taskInfoDTO);
+        when(taskMapper.toTaskInfoDTO(second)).thenReturn(secondInfo);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        taskService.exportTasks(outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(taskInfoDTO.getTitle(), objectMapper.readValue(lines[0], TaskInfoDTO.class).getTitle());
+        assertEquals(secondInfo.getTitle(), objectMapper.readValue(lines[1], TaskInfoDTO.class).getTitle());
+        verify(entityManager, times(2)).detach(any(Task.class));
+    }
+
+    private static TaskMutation mutation(Long taskId) {
+        return new TaskMutation(taskId, new TaskStatsKey(null, false), 1L);
+    }
 
     @Test
     @DisplayName("Test deleting task - successful")
@@ -157,11 +530,13 @@ class TaskServiceImplTest {
 
         Long taskId = 1L;
 
-        when(taskRepository.findById(any(Long.class))).thenReturn(Optional.of(new Task()));
+        when(taskRepository.deleteTaskById(taskId)).thenReturn(Optional.of(mutation(taskId)));
 
         taskService.deleteTask(taskId);
 
-        verify(taskRepository, times(1)).delete(any(Task.class));
+        verify(taskRepository, times(1)).deleteTaskById(taskId);
+        verify(taskRepository, never()).findById(any(Long.class));
+        verify(eventPublisher).publishEvent(TaskChangedEvent.deleted(taskId));
     }
 
     @Test
@@ -169,7 +544,7 @@ class TaskServiceImplTest {
     public void deleteTask_Unsuccessful() {
         Long taskId = 1L;
 
-        when(taskRepository.findById(any(Long.class))).thenReturn(Optional.empty());
+        when(taskRepository.deleteTaskById(taskId)).thenReturn(Optional.empty());
 
         assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(taskId));
 
@@ -186,15 +561,19 @@ class TaskServiceImplTest {
 
         task.setId(taskId);
 
-        when(taskRepository.findById(any(Long.class))).thenReturn(Optional.of(task));
-        when(taskMapper.toTaskInfoDTO(any())).thenReturn(taskInfoDTO);
+        when(taskRepository.updateTask(taskId, null, taskInfoDTO.getTitle(), taskInfoDTO.getDescription(),
+                taskInfoDTO.getDueDate(), taskInfoDTO.isCompleted())).thenReturn(Optional.of(mutation(taskId)));
 
         TaskInfoDTO updatedTaskInfo = taskService.updateTaskInfo(taskId, taskInfoDTO);
 
+        assertEquals(taskId, updatedTaskInfo.getTaskId());
         assertEquals(taskInfoDTO.getTitle(), updatedTaskInfo.getTitle());
         assertEquals(taskInfoDTO.getDescription(), updatedTaskInfo.getDescription());
         assertEquals(taskInfoDTO.getDueDate(), updatedTaskInfo.getDueDate());
         assertEquals(taskInfoDTO.isCompleted(), updatedTaskInfo.isCompleted());
+        assertEquals(1L, updatedTaskInfo.getVersion());
+        verify(taskRepository, never()).findById(any(Long.class));
+        verify(taskRepository, never()).save(any(Task.class));
     }
 
     @Test
@@ -202,11 +581,123 @@ class TaskServiceImplTest {
     void updateTaskInfo_Unsuccessful() {
         Long taskId = 1L;
 
-        when(taskRepository.findById(any(Long.class))).thenReturn(Optional.empty());
+        when(taskRepository.updateTask(eq(taskId), isNull(), any(), any(), any(), anyBoolean()))
+                .thenReturn(Optional.empty());
 
         assertThrows(TaskNotFoundException.class, () -> taskService.updateTaskInfo(taskId, new TaskInfoDTO()));
 
         verify(taskMapper, never()).toTaskInfoDTO(any(Task.class));
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("Test updating task info with expected version - new version returned")
+    void updateTaskInfo_ExpectedVersion() {
+        Long taskId = 1L;
+
+        when(taskRepository.updateTask(eq(taskId), eq(3L), any(), any(), any(), anyBoolean()))
+                .thenReturn(Optional.of(new TaskMutation(taskId, new TaskStatsKey(null, false), 4L)));
+
+        TaskInfoDTO updatedTaskInfo = taskService.updateTaskInfo(taskId, taskInfoDTO, 3L);
+
+        assertEquals(4L, updatedTaskInfo.getVersion());
+    }
+
+    @Test
+    @DisplayName("Test updating task info - unsuccessful when version is stale")
+    void updateTaskInfo_StaleVersionUnsuccessful() {
+        Long taskId = 1L;
+
+        when(taskRepository.updateTask(eq(taskId), eq(3L), any(), any(), any(), anyBoolean()))
+                .thenReturn(Optional.empty());
+        when(taskRepository.existsById(taskId)).thenReturn(true);
+
+        assertThrows(TaskVersionConflictException.class, () -> taskService.updateTaskInfo(taskId, taskInfoDTO, 3L));
+        verify(taskInfoCache, never()).evict(taskId);
+    }
+
+    @Test
+    @DisplayName("Test patching task - unsuccessful when version is stale")
+    void patchTask_StaleVersionUnsuccessful() {
+        Long taskId = 1L;
+        TaskPatchDTO taskPatchDTO = new TaskPatchDTO(null, null, null, true);
+
+        when(taskRepository.updateFields(taskId, 3L, Map.of("completed", true))).thenReturn(Optional.empty());
+        when(taskRepository.existsById(taskId)).thenReturn(true);
+
+        assertThrows(TaskVersionConflictException.class, () -> taskService.patchTask(taskId, taskPatchDTO, 3L));
+    }
+
+    @Test
+    @DisplayName("Test patching task - only provided fields are written")
+    void patchTask() {
+        Long taskId = 1L;
+        TaskPatchDTO taskPatchDTO = new TaskPatchDTO(null, null, null, true);
+
+        when(taskRepository.updateFields(taskId, null, Map.of("completed", true)))
+                .thenReturn(Optional.of(mutation(taskId)));
+
+        taskService.patchTask(taskId, taskPatchDTO);
+
+        verify(taskRepository, times(1)).updateFields(taskId, null, Map.of("completed", true));
+        verify(taskRepository, never()).findById(any(Long.class));
+    }
+
+    @Test
+    @DisplayName("Test patching task - unsuccessful when task not found")
+    void patchTask_Unsuccessful() {
+        Long taskId = 1L;
+        TaskPatchDTO taskPatchDTO = new TaskPatchDTO("New title", null, null, null);
+
+        when(taskRepository.updateFields(taskId, null, Map.of("title", "New title"))).thenReturn(Optional.empty());
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.patchTask(taskId, taskPatchDTO));
+    }
+
+    @Test
+    @DisplayName("Test patching task with no fields - unsuccessful when task not found")
+    void patchTask_EmptyUnsuccessful() {
+        Long taskId = 1L;
+
+        when(taskRepository.existsById(taskId)).thenReturn(false);
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.patchTask(taskId, new TaskPatchDTO()));
+        verify(taskRepository, never()).updateFields(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Test completing task - successful")
+    void completeTask() {
+        Long taskId = 1L;
+
+        when(taskRepository.completeTask(taskId)).thenReturn(Optional.of(mutation(taskId)));
+
+        taskService.completeTask(taskId);
+
+        verify(taskRepository, times(1)).completeTask(taskId);
+    }
+
+    @Test
+    @DisplayName("Test completing task - task moved from open to completed in stats")
+    void completeTask_StatsRecorded() {
+        Long taskId = 1L;
+        LocalDateTime dueDate = LocalDateTime.now().plusDays(1);
+        when(taskRepository.completeTask(taskId))
+                .thenReturn(Optional.of(new TaskMutation(taskId, new TaskStatsKey(dueDate, false), 2L)));
+
+        taskService.completeTask(taskId);
+
+        verify(taskStatsService).record(new TaskStatsKey(dueDate, false), -1);
+        verify(taskStatsService).record(new TaskStatsKey(dueDate, true), 1);
+    }
+
+    @Test
+    @DisplayName("Test completing task - unsuccessful when task not found")
+    void completeTask_Unsuccessful() {
+        Long taskId = 1L;
+
+        when(taskRepository.completeTask(taskId)).thenReturn(Optional.empty());
+
+        assertThrows(TaskNotFoundException.class, () -> taskService.completeTask(taskId));
+    }
+
+}
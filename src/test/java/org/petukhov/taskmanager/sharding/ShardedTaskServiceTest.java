@@ -0,0 +1,259 @@
+package org.petukhov.taskmanager.sharding;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.petukhov.taskmanager.dto.CreateTaskDTO;
+import org.petukhov.taskmanager.dto.TaskBatchResultDTO;
+import org.petukhov.taskmanager.dto.TaskBulkRequestDTO;
+import org.petukhov.taskmanager.dto.TaskFilterDTO;
+import org.petukhov.taskmanager.dto.TaskInfoDTO;
+import org.petukhov.taskmanager.dto.TaskPatchDTO;
+import org.petukhov.taskmanager.dto.TaskSliceDTO;
+import org.petukhov.taskmanager.entity.TaskOutboxEntry;
+import org.petukhov.taskmanager.event.TaskChangedEvent;
+import org.petukhov.taskmanager.exception.TaskNotFoundException;
+import org.petukhov.taskmanager.exception.TaskVersionConflictException;
+import org.petukhov.taskmanager.repository.TaskOutboxRepository;
+import org.petukhov.taskmanager.repository.TaskStore;
+import org.petukhov.taskmanager.service.TaskService;
+import org.petukhov.taskmanager.service.TaskStatsService;
+import org.petukhov.taskmanager.service.impl.TaskServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.context.ActiveProfiles;
+import testData.TestData;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doThrow;
+
+@SpringBootTest
+@ActiveProfiles({"test", "sharding"})
+class ShardedTaskServiceTest {
+    @Autowired
+    TaskService taskService;
+    @Autowired
+    TaskShards taskShards;
+    @Autowired
+    TaskShardRebalancer taskShardRebalancer;
+    @Autowired
+    ShardedTaskRepository shardedTaskRepository;
+    @Autowired
+    TaskStore taskStore;
+    @Autowired
+    TaskOutboxRepository taskOutboxRepository;
+    @SpyBean
+    TaskStatsService taskStatsService;
+
+    @AfterEach
+    void cleanup() {
+        taskShardRebalancer.rebalance();
+        for (TaskShard shard : taskShards.all()) {
+            shard.getJdbcTemplate().update("DELETE FROM tasks", Map.of());
+        }
+    }
+
+    @Test
+    @DisplayName("Test sharded store - used by the task service instead of the single-database store")
+    void taskStore_Sharded() {
+        assertInstanceOf(TaskServiceImpl.class, taskService);
+        assertInstanceOf(ShardedTaskStore.class, taskStore);
+        assertEquals(3, taskShards.size());
+    }
+
+    @Test
+    @DisplayName("Test create - tasks spread across shards and are read back by ID")
+    void createTask_DistributedAcrossShards() {
+        for (int i = 0; i < 9; i++) {
+            taskService.createTask(TestData.randomTestDataCreateTaskDTO());
+        }
+
+        List<Long> ids = new ArrayList<>();
+        for (TaskShard shard : taskShards.all()) {
+            List<Long> shardIds = shard.getJdbcTemplate().queryForList("SELECT id FROM tasks", Map.of(), Long.class);
+            assertFalse(shardIds.isEmpty(), shard + " has no tasks");
+            for (Long id : shardIds) {
+                assertSame(shard, taskShards.shardOf(id));
+            }
+            ids.addAll(shardIds);
+        }
+        assertEquals(9, ids.size());
+        for (Long id : ids) {
+            assertEquals(id, taskService.getTaskInfo(id).getTaskId());
+        }
+    }
+
+    @Test
+    @DisplayName("Test listing - pages and cursor slices merged from all shards in ID order")
+    void getTasks_MergedInIdOrder() {
+        List<Long> ids = createTasks(12);
+        Collections.sort(ids);
+
+        List<Long> secondPage = taskService.getAllTasks(2, 5).stream().map(TaskInfoDTO::getTaskId).toList();
+        assertEquals(ids.subList(5, 10), secondPage);
+
+        List<Long> read = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskSliceDTO slice = taskService.getTasksAfter(cursor, 5);
+            slice.getTasks().forEach(task -> read.add(task.getTaskId()));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+        assertEquals(ids, read);
+    }
+
+    @Test
+    @DisplayName("Test filtered listing and bulk complete - filter applied on every shard")
+    void completeTasks_ByFilter() {
+        List<Long> ids = createTasks(12);
+        LocalDateTime overdue = LocalDateTime.now().minusDays(1);
+        for (Long id : ids.subList(0, 4)) {
+            TaskPatchDTO patch = new TaskPatchDTO();
+            patch.setDueDate(overdue);
+            taskService.patchTask(id, patch);
+        }
+        for (TaskInfoDTO task : taskService.getTasksByIds(ids).getTasks()) {
+            taskService.createTask(new CreateTaskDTO("copy", task.getDescription(), task.getDueDate()));
+        }
+
+        TaskFilterDTO filter = new TaskFilterDTO(null, null, null, true);
+        assertEquals(8, taskService.getAllTasks(filter, 1, 100).size());
+        assertEquals(8, taskService.completeTasks(new TaskBulkRequestDTO(null, filter)).getAffected());
+        assertTrue(taskService.getAllTasks(filter, 1, 100).isEmpty());
+        assertEquals(8, taskService.getAllTasks(new TaskFilterDTO(true, null, null, null), 1, 100).size());
+    }
+
+    @Test
+    @DisplayName("Test update, complete and delete - applied in the task's shard")
+    void changeTask_InOwnShard() {
+        Long taskId = createTasks(1).get(0);
+
+        TaskInfoDTO update = TestData.randomTestDataTaskInfoDTO();
+        taskService.updateTaskInfo(taskId, update, 0L);
+        assertEquals(update.getTitle(), taskService.getTaskInfo(taskId).getTitle());
+        assertEquals(1L, taskService.getTaskInfo(taskId).getVersion());
+
+        taskService.completeTask(taskId);
+        assertTrue(taskService.getTaskInfo(taskId).isCompleted());
+
+        taskService.deleteTask(taskId);
+        assertThrows(TaskNotFoundException.class, () -> taskService.getTaskInfo(taskId));
+        assertThrows(TaskNotFoundException.class, () -> taskService.deleteTask(taskId));
+    }
+
+    @Test
+    @DisplayName("Test bulk delete by IDs - IDs grouped by shard, missing IDs ignored")
+    void deleteTasks_ByIds() {
+        List<Long> ids = new ArrayList<>(createTasks(6));
+        ids.add(Long.MAX_VALUE - 1);
+
+        assertEquals(6, taskService.deleteTasks(new TaskBulkRequestDTO(ids, null)).getAffected());
+        assertTrue(taskService.getTasksByIds(ids).getTasks().isEmpty());
+        assertEquals(ids, taskService.getTasksByIds(ids).getMissingIds());
+    }
+
+    @Test
+    @DisplayName("Test outbox - change committed in the shard is written to the outbox of the main database")
+    void changeTask_OutboxWritten() {
+        Long taskId = createTasks(1).get(0);
+
+        taskService.completeTask(taskId);
+
+        assertEquals(List.of(TaskChangedEvent.Type.CREATED, TaskChangedEvent.Type.UPDATED), outboxTypes(taskId));
+    }
+
+    @Test
+    @DisplayName("Test outbox - failed shard write leaves no outbox entry")
+    void changeTask_ShardWriteFailedNoOutbox() {
+        Long taskId = createTasks(1).get(0);
+
+        assertThrows(TaskVersionConflictException.class,
+                () -> taskService.updateTaskInfo(taskId, TestData.randomTestDataTaskInfoDTO(), 5L));
+        assertThrows(TaskNotFoundException.class, () -> taskService.completeTask(Long.MAX_VALUE - 1));
+
+        assertEquals(List.of(TaskChangedEvent.Type.CREATED), outboxTypes(taskId));
+        assertTrue(outboxTypes(Long.MAX_VALUE - 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Test outbox - change stays in the shard without outbox entry when the main transaction fails")
+    void changeTask_MainTransactionFailedAtMostOnce() {
+        Long taskId = createTasks(1).get(0);
+        doThrow(new IllegalStateException("main database unavailable")).when(taskStatsService).record(any(), anyLong());
+
+        assertThrows(IllegalStateException.class, () -> taskService.completeTask(taskId));
+
+        assertTrue(taskService.getTaskInfo(taskId).isCompleted());
+        assertEquals(List.of(TaskChangedEvent.Type.CREATED), outboxTypes(taskId));
+    }
+
+    @Test
+    @DisplayName("Test rebalance - moved bucket stays readable and is moved back by rebalance")
+    void moveBucket_TasksFollowBucket() {
+        List<Long> ids = createTasks(6);
+        Long taskId = ids.get(0);
+        int bucket = taskShards.bucketOf(taskId);
+        TaskShard source = taskShards.shardOf(taskId);
+        int target = (source.getIndex() + 1) % taskShards.size();
+
+        assertTrue(taskShardRebalancer.moveBucket(bucket, target) > 0);
+        assertEquals(target, taskShards.shardOf(taskId).getIndex());
+        assertEquals(0, source.getJdbcTemplate().queryForList("SELECT id FROM tasks WHERE id = :id",
+                Map.of("id", taskId), Long.class).size());
+        assertEquals(taskId, taskService.getTaskInfo(taskId).getTaskId());
+        assertEquals(ids.size(), taskService.getAllTasks(1, 100).size());
+
+        ShardRebalanceResult result = taskShardRebalancer.rebalance();
+        assertEquals(1, result.bucketsMoved());
+        assertEquals(ids.size(), taskService.getAllTasks(1, 100).size());
+        assertEquals(Map.of("shard-0", 6, "shard-1", 5, "shard-2", 5), taskShardRebalancer.distribution());
+    }
+
+    @Test
+    @DisplayName("Test rebalance - bucket moved by another instance is reloaded, its tasks are not removed as strays")
+    void rebalance_BucketMovedByAnotherInstance() {
+        List<Long> ids = createTasks(6);
+        Long taskId = ids.get(0);
+        int bucket = taskShards.bucketOf(taskId);
+        TaskShard source = taskShards.shardOf(taskId);
+        TaskShard target = taskShards.get((source.getIndex() + 1) % taskShards.size());
+
+        shardedTaskRepository.insert(target, shardedTaskRepository.findBucketSlice(source, bucket, Long.MIN_VALUE, 100));
+        taskShards.home().getJdbcTemplate().update("UPDATE task_shard_buckets SET shard = :shard WHERE bucket = :bucket",
+                Map.of("shard", target.getIndex(), "bucket", bucket));
+        shardedTaskRepository.deleteBucket(source, bucket);
+
+        taskShardRebalancer.rebalance();
+
+        assertEquals(taskId, taskService.getTaskInfo(taskId).getTaskId());
+        assertEquals(ids.size(), taskService.getAllTasks(1, 100).size());
+        assertEquals(Map.of("shard-0", 6, "shard-1", 5, "shard-2", 5), taskShardRebalancer.distribution());
+    }
+
+    private List<TaskChangedEvent.Type> outboxTypes(Long taskId) {
+        return taskOutboxRepository.findAll().stream()
+                .filter(entry -> taskId.equals(entry.getTaskId()))
+                .sorted(Comparator.comparing(TaskOutboxEntry::getId))
+                .map(TaskOutboxEntry::getChangeType)
+                .toList();
+    }
+
+    private List<Long> createTasks(int count) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<TaskBatchResultDTO> results = taskService.createTasks(List.of(TestData.randomTestDataCreateTaskDTO()));
+            ids.add(results.get(0).getTaskId());
+        }
+        return ids;
+    }
+}